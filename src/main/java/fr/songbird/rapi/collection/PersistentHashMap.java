@@ -0,0 +1,577 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.collection;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash map, updated by copying only the path to the changed entry (a hash array mapped trie).
+ * <pre>{@code
+ * final PersistentHashMap<String, String> v1 = PersistentHashMap.<String, String>empty().put("timeout", "30s");
+ * final PersistentHashMap<String, String> v2 = v1.put("retries", "3"); // v1 is unchanged
+ * v2.get("timeout"); // Some("30s")
+ * v2.get("missing"); // None
+ *
+ * final PersistentHashMap.Builder<String, String> builder = v2.toBuilder();
+ * for (final Map.Entry<String, String> entry : overrides.entrySet()) {
+ *     builder.put(entry.getKey(), entry.getValue()); // updated in place
+ * }
+ * final PersistentHashMap<String, String> v3 = builder.build();
+ * }</pre>
+ * Every node holds a 32 bits bitmap of its children, indexed by 5 bits of the key hash, so a lookup or an
+ * update visits at most 7 nodes, and an update copies at most 7 small arrays; every other node is shared
+ * between versions. Keys whose whole hashes collide share a collision node.
+ * <p>
+ * A {@link Builder} applies a batch of updates without copying the nodes it created itself: they're tagged
+ * with its edit token, and mutated in place until {@link Builder#build()}.
+ * <p>
+ * Keys and values cannot be null. A {@code PersistentHashMap} is safe to share between threads.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ * @since 19/10/26
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The shared empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return A new builder, starting from the empty map.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(null, 0);
+    }
+
+    /**
+     * @return How many entries this map holds.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if this map holds no entry, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return A new {@link Some} containing the value mapped to {@code key}, the shared {@code None} otherwise.
+     * @throws NullPointerException If {@code key} is null.
+     */
+    public Option<V> get(Object key) {
+        final V value = find(root, key);
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return {@code true} if a value is mapped to {@code key}, {@code false} otherwise.
+     * @throws NullPointerException If {@code key} is null.
+     */
+    public boolean containsKey(Object key) {
+        return find(root, key) != null;
+    }
+
+    /**
+     * @param key The key to map.
+     * @param value The value to map {@code key} to.
+     * @return A new version of this map, mapping {@code key} to {@code value}; this map if it already does.
+     * @throws NullPointerException If {@code key} or {@code value} is null.
+     */
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(key, "`key` cannot be null.");
+        Objects.requireNonNull(value, "`value` cannot be null.");
+        final boolean[] added = new boolean[1];
+        final Node newRoot = (root != null ? root : BitmapNode.EMPTY).put(null, 0, key.hashCode(), key, value, added);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param key The key to unmap.
+     * @return A new version of this map, without {@code key}; this map if it doesn't map {@code key}.
+     * @throws NullPointerException If {@code key} is null.
+     */
+    public PersistentHashMap<K, V> remove(Object key) {
+        Objects.requireNonNull(key, "`key` cannot be null.");
+        if (root == null) {
+            return this;
+        }
+        final boolean[] removed = new boolean[1];
+        final Node newRoot = root.remove(null, 0, key.hashCode(), key, removed);
+        if (!removed[0]) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Passes every entry to {@code action}, in no particular order.
+     * @param action Receives the keys and their value.
+     * @throws NullPointerException If {@code action} is null.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "`action` cannot be null.");
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /**
+     * @return A new builder, starting from this map. This map is left unchanged by the builder updates.
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    /**
+     * Compares the entries only.
+     * @param anObject The other map to compare.
+     * @return {@code true} if {@code anObject} is a {@code PersistentHashMap} holding the same entries,
+     * {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object anObject) {
+        if (this == anObject) {
+            return true;
+        }
+        if (!(anObject instanceof PersistentHashMap)) {
+            return false;
+        }
+        final PersistentHashMap<?, ?> other = (PersistentHashMap<?, ?>) anObject;
+        if (size != other.size) {
+            return false;
+        }
+        final boolean[] equal = {true};
+        forEach((key, value) -> {
+            if (equal[0] && !value.equals(find(other.root, key))) {
+                equal[0] = false;
+            }
+        });
+        return equal[0];
+    }
+
+    /**
+     * @return The sum of the {@code key.hashCode() ^ value.hashCode()} of every entry, as {@link java.util.Map#hashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        final int[] hash = new int[1];
+        forEach((key, value) -> hash[0] += key.hashCode() ^ value.hashCode());
+        return hash[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V find(Node root, Object key) {
+        Objects.requireNonNull(key, "`key` cannot be null.");
+        return root == null ? null : (V) root.find(0, key.hashCode(), key);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << (hash >>> shift & MASK);
+    }
+
+    /**
+     * Updates a map in place, for batches of updates.
+     * <p>
+     * <strong>Note</strong>: A {@code Builder} is not thread-safe.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    public static final class Builder<K, V> {
+
+        private Edit edit = new Edit();
+        private Node root;
+        private int size;
+
+        private Builder(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * @return How many entries the built map would hold.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param key The key to look up.
+         * @return A new {@link Some} containing the value mapped to {@code key}, the shared {@code None} otherwise.
+         * @throws NullPointerException If {@code key} is null.
+         */
+        public Option<V> get(Object key) {
+            final V value = find(root, key);
+            return value != null ? new Some<>(value) : None.none();
+        }
+
+        /**
+         * @param key The key to map.
+         * @param value The value to map {@code key} to.
+         * @return This builder.
+         * @throws NullPointerException If {@code key} or {@code value} is null.
+         */
+        public Builder<K, V> put(K key, V value) {
+            Objects.requireNonNull(key, "`key` cannot be null.");
+            Objects.requireNonNull(value, "`value` cannot be null.");
+            final boolean[] added = new boolean[1];
+            root = (root != null ? root : BitmapNode.EMPTY).put(edit, 0, key.hashCode(), key, value, added);
+            if (added[0]) {
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * @param key The key to unmap.
+         * @return This builder.
+         * @throws NullPointerException If {@code key} is null.
+         */
+        public Builder<K, V> remove(Object key) {
+            Objects.requireNonNull(key, "`key` cannot be null.");
+            if (root != null) {
+                final boolean[] removed = new boolean[1];
+                root = root.remove(edit, 0, key.hashCode(), key, removed);
+                if (removed[0]) {
+                    size--;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns the current map. The builder remains usable: its next updates copy the nodes they share with
+         * the returned map.
+         * @return A map holding the current entries.
+         */
+        public PersistentHashMap<K, V> build() {
+            edit = new Edit();
+            return root == null ? empty() : new PersistentHashMap<>(root, size);
+        }
+    }
+
+    /**
+     * Tags the nodes a builder may mutate in place.
+     */
+    private static final class Edit {
+
+    }
+
+    /**
+     * A trie node. Values are never null, so {@code null} stands for a missing entry.
+     */
+    private abstract static class Node {
+
+        abstract Object find(int shift, int hash, Object key);
+
+        /**
+         * @param edit The edit token of the calling builder, {@code null} for a persistent update.
+         * @param added Set if the entry was added rather than replaced.
+         * @return The updated node, this node if nothing changed.
+         */
+        abstract Node put(Edit edit, int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @param edit The edit token of the calling builder, {@code null} for a persistent update.
+         * @param removed Set if an entry was removed.
+         * @return The updated node, this node if nothing changed, {@code null} if the node became empty.
+         */
+        abstract Node remove(Edit edit, int shift, int hash, Object key, boolean[] removed);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Holds a child for each bit set in its bitmap, as a key and value pair, or as {@code null} and a sub-node.
+     */
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        private final Edit edit;
+        private int bitmap;
+        private Object[] array;
+
+        BitmapNode(Edit edit, int bitmap, Object[] array) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & bit - 1);
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object childKey = array[2 * index];
+            final Object child = array[2 * index + 1];
+            if (childKey == null) {
+                return ((Node) child).find(shift + BITS, hash, key);
+            }
+            return key.equals(childKey) ? child : null;
+        }
+
+        @Override
+        Node put(Edit edit, int shift, int hash, Object key, Object value, boolean[] added) {
+            final int bit = bit(hash, shift);
+            final int index = index(bit);
+            if ((bitmap & bit) != 0) {
+                final Object childKey = array[2 * index];
+                final Object child = array[2 * index + 1];
+                if (childKey == null) {
+                    final Node node = ((Node) child).put(edit, shift + BITS, hash, key, value, added);
+                    return node == child ? this : set(edit, 2 * index + 1, node);
+                }
+                if (key.equals(childKey)) {
+                    return value == child ? this : set(edit, 2 * index + 1, value);
+                }
+                added[0] = true;
+                final Node node = pair(edit, shift + BITS, childKey, child, hash, key, value);
+                if (isEditable(edit)) {
+                    array[2 * index] = null;
+                    array[2 * index + 1] = node;
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[2 * index] = null;
+                newArray[2 * index + 1] = node;
+                return new BitmapNode(edit, bitmap, newArray);
+            }
+            added[0] = true;
+            final int count = Integer.bitCount(bitmap);
+            final Object[] newArray = new Object[2 * (count + 1)];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = value;
+            System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), 2 * (count - index));
+            if (isEditable(edit)) {
+                array = newArray;
+                bitmap |= bit;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node remove(Edit edit, int shift, int hash, Object key, boolean[] removed) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object childKey = array[2 * index];
+            final Object child = array[2 * index + 1];
+            if (childKey == null) {
+                final Node node = ((Node) child).remove(edit, shift + BITS, hash, key, removed);
+                if (node == child) {
+                    return this;
+                }
+                return node != null ? set(edit, 2 * index + 1, node) : removeChild(edit, bit, index);
+            }
+            if (!key.equals(childKey)) {
+                return this;
+            }
+            removed[0] = true;
+            return removeChild(edit, bit, index);
+        }
+
+        private Node removeChild(Edit edit, int bit, int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            System.arraycopy(array, 2 * (index + 1), newArray, 2 * index, newArray.length - 2 * index);
+            if (isEditable(edit)) {
+                array = newArray;
+                bitmap ^= bit;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode set(Edit edit, int position, Object element) {
+            if (isEditable(edit)) {
+                array[position] = element;
+                return this;
+            }
+            final Object[] newArray = array.clone();
+            newArray[position] = element;
+            return new BitmapNode(edit, bitmap, newArray);
+        }
+
+        private boolean isEditable(Edit edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                }
+                else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * @return A node holding both entries.
+         */
+        private static Node pair(Edit edit, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            final int hash1 = key1.hashCode();
+            if (hash1 == hash2) {
+                return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2, value2});
+            }
+            final boolean[] added = new boolean[1];
+            return EMPTY.put(edit, shift, hash1, key1, value1, added).put(edit, shift, hash2, key2, value2, added);
+        }
+    }
+
+    /**
+     * Holds the key and value pairs whose keys have the same hash.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Edit edit;
+        private final int hash;
+        private Object[] array;
+
+        CollisionNode(Edit edit, int hash, Object[] array) {
+            this.edit = edit;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int index = indexOf(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node put(Edit edit, int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // moves this node one level down, next to the new entry.
+                return new BitmapNode(edit, bit(this.hash, shift), new Object[]{null, this})
+                        .put(edit, shift, hash, key, value, added);
+            }
+            final int index = indexOf(key);
+            if (index >= 0) {
+                if (array[index + 1] == value) {
+                    return this;
+                }
+                if (isEditable(edit)) {
+                    array[index + 1] = value;
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[index + 1] = value;
+                return new CollisionNode(edit, hash, newArray);
+            }
+            added[0] = true;
+            final Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (isEditable(edit)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        Node remove(Edit edit, int shift, int hash, Object key, boolean[] removed) {
+            final int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            removed[0] = true;
+            if (array.length == 2) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 2, newArray, index, newArray.length - index);
+            if (isEditable(edit)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        private boolean isEditable(Edit edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
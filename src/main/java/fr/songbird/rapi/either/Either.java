@@ -0,0 +1,106 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.either;
+
+import fr.songbird.rapi.option.Option;
+
+import java.util.function.Function;
+
+/**
+ * Represents one of two values: a {@link Left} or a {@link Right}.
+ * <p>
+ * {@code Either} is right-biased: {@link #map(Function)} and {@link #andThen(Function)} act on the right value
+ * and pass a left one through untouched.
+ * <pre>{@code
+ * public Either<CachedPage, Page> load(URI uri) {
+ *     final CachedPage cached = cache.get(uri);
+ *     return cached != null ? new Left<>(cached) : new Right<>(fetch(uri));
+ * }
+ *
+ * final int size = load(uri).fold(CachedPage::size, Page::size);
+ * final Option<Page> fresh = load(uri).right(); // None if the page came from the cache
+ * }</pre>
+ * @param <L> The left value type.
+ * @param <R> The right value type.
+ * @since 19/10/26
+ */
+public interface Either<L, R> {
+
+    /**
+     * @return {@code true} if the container is a {@link Left} object, {@code false} otherwise.
+     */
+    boolean isLeft();
+
+    /**
+     * @return {@code true} if the container is a {@link Right} object, {@code false} otherwise.
+     */
+    boolean isRight();
+
+    /**
+     * @return {@code Some} holding the left value, the shared {@code None} instance if the container is
+     * {@link Right}.
+     */
+    Option<L> left();
+
+    /**
+     * @return {@code Some} holding the right value, the shared {@code None} instance if the container is
+     * {@link Left}.
+     */
+    Option<R> right();
+
+    /**
+     * Maps the right value, if any.
+     * @param appliedFunction Function to apply.
+     * @param <U> The new right value type.
+     * @return A new {@link Right} holding the {@code appliedFunction} result, or this container if it's
+     * {@link Left}.
+     * @throws NullPointerException If either {@code appliedFunction} or its result is null.
+     */
+    <U> Either<L, U> map(Function<R, U> appliedFunction);
+
+    /**
+     * Maps the left value, if any.
+     * @param appliedFunction Function to apply.
+     * @param <U> The new left value type.
+     * @return A new {@link Left} holding the {@code appliedFunction} result, or this container if it's
+     * {@link Right}.
+     * @throws NullPointerException If either {@code appliedFunction} or its result is null.
+     */
+    <U> Either<U, R> mapLeft(Function<L, U> appliedFunction);
+
+    /**
+     * Performs {@code function} over the right value, if any.
+     * @param function Function to apply.
+     * @param <U> The new right value type.
+     * @return The {@code function} result, or this container if it's {@link Left}.
+     * @throws NullPointerException If either {@code function} or its result is null.
+     */
+    <U> Either<L, U> andThen(Function<R, Either<L, U>> function);
+
+    /**
+     * @param ifLeft Applied to the left value.
+     * @param ifRight Applied to the right value.
+     * @param <U> The returned type.
+     * @return The result of the applied function.
+     * @throws NullPointerException If either {@code ifLeft}, {@code ifRight} or the applied function result
+     * is null.
+     */
+    <U> U fold(Function<L, U> ifLeft, Function<R, U> ifRight);
+
+    /**
+     * @return A new container holding the same value on the other side.
+     */
+    Either<R, L> swap();
+}
@@ -0,0 +1,106 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.either;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @since 19/10/26
+ */
+public final class Left<L, R> implements Either<L, R> {
+
+    private final L value;
+
+    /**
+     * Initializes a new {@code Left} container.
+     * @param value The value to wrap.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public Left(L value) {
+        this.value = Objects.requireNonNull(value, "value cannot be null.");
+    }
+
+    @Override
+    public boolean isLeft() {
+        return true;
+    }
+
+    @Override
+    public boolean isRight() {
+        return false;
+    }
+
+    @Override
+    public Option<L> left() {
+        return new Some<>(value);
+    }
+
+    @Override
+    public Option<R> right() {
+        return None.none();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> Either<L, U> map(Function<R, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return (Either<L, U>) this;
+    }
+
+    @Override
+    public <U> Either<U, R> mapLeft(Function<L, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return new Left<>(appliedFunction.apply(value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> Either<L, U> andThen(Function<R, Either<L, U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return (Either<L, U>) this;
+    }
+
+    @Override
+    public <U> U fold(Function<L, U> ifLeft, Function<R, U> ifRight) {
+        Objects.requireNonNull(ifLeft, "ifLeft cannot be null.");
+        Objects.requireNonNull(ifRight, "ifRight cannot be null.");
+        return Objects.requireNonNull(ifLeft.apply(value), "ifLeft result cannot be null.");
+    }
+
+    @Override
+    public Either<R, L> swap() {
+        return new Right<>(value);
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        return anObject instanceof Left && value.equals(((Left<?, ?>) anObject).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Left(" + value + ")";
+    }
+}
@@ -0,0 +1,105 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.either;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @since 19/10/26
+ */
+public final class Right<L, R> implements Either<L, R> {
+
+    private final R value;
+
+    /**
+     * Initializes a new {@code Right} container.
+     * @param value The value to wrap.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public Right(R value) {
+        this.value = Objects.requireNonNull(value, "value cannot be null.");
+    }
+
+    @Override
+    public boolean isLeft() {
+        return false;
+    }
+
+    @Override
+    public boolean isRight() {
+        return true;
+    }
+
+    @Override
+    public Option<L> left() {
+        return None.none();
+    }
+
+    @Override
+    public Option<R> right() {
+        return new Some<>(value);
+    }
+
+    @Override
+    public <U> Either<L, U> map(Function<R, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return new Right<>(appliedFunction.apply(value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> Either<U, R> mapLeft(Function<L, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return (Either<U, R>) this;
+    }
+
+    @Override
+    public <U> Either<L, U> andThen(Function<R, Either<L, U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return Objects.requireNonNull(function.apply(value), "function result cannot be null.");
+    }
+
+    @Override
+    public <U> U fold(Function<L, U> ifLeft, Function<R, U> ifRight) {
+        Objects.requireNonNull(ifLeft, "ifLeft cannot be null.");
+        Objects.requireNonNull(ifRight, "ifRight cannot be null.");
+        return Objects.requireNonNull(ifRight.apply(value), "ifRight result cannot be null.");
+    }
+
+    @Override
+    public Either<R, L> swap() {
+        return new Left<>(value);
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        return anObject instanceof Right && value.equals(((Right<?, ?>) anObject).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Right(" + value + ")";
+    }
+}
@@ -0,0 +1,276 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.flow;
+
+import fr.songbird.rapi.option.Option;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Maps every upstream element to an {@link Option}, emits the contained values downstream and either drops
+ * the {@code None} results or completes on the first one.
+ * <p>
+ * Every upstream element produces at most one downstream element, so the processor never requests more
+ * than the downstream demand (plus one replacement per dropped element) and never buffers anything.
+ * Replacements are requested in batches of {@code batchSize}, or as soon as no upstream request is pending.
+ * @since 19/10/26
+ */
+final class OptionProcessor<T, R> implements Processor<T, R>, Subscription {
+
+    private final Function<T, Option<R>> function;
+    private final boolean completeOnNone;
+    private final int batchSize;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Subscriber<? super R> downstream;
+
+    private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+    /**
+     * Downstream requests and dropped-element replacements not yet forwarded upstream.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Elements requested upstream and not yet received, {@link Long#MAX_VALUE} once unbounded.
+     */
+    private final AtomicLong outstanding = new AtomicLong();
+
+    /**
+     * Serializes the calls to the upstream subscription (rule 2.7).
+     */
+    private final AtomicInteger requestWip = new AtomicInteger();
+    private volatile boolean armed;
+    private volatile boolean cancelled;
+    private boolean upstreamCancelled;
+
+    /**
+     * Serializes the downstream signals: {@code onNext} comes from upstream, but an error may come from
+     * {@link #request(long)}. Starts at 1 until the downstream subscriber is ready.
+     */
+    private final AtomicInteger emitWip = new AtomicInteger(1);
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    /**
+     * Upstream signals are serial (rule 1.3), so is this flag.
+     */
+    private boolean done;
+    private int dropped;
+
+    OptionProcessor(Function<T, Option<R>> function, boolean completeOnNone, int batchSize) {
+        this.function = Objects.requireNonNull(function, "`function` cannot be null.");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("`batchSize` must be positive: " + batchSize);
+        }
+        this.completeOnNone = completeOnNone;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "`subscriber` cannot be null.");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+            subscriber.onError(new IllegalStateException(getClass().getSimpleName() + " only accepts one subscriber."));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(this);
+        // Requests made from `onSubscribe` are only forwarded now, so that no signal precedes its end. The
+        // downstream is released before arming: once armed, an upstream `onNext` may race this method.
+        if (emitWip.decrementAndGet() != 0) {
+            terminate();
+        }
+        armed = true;
+        drainRequests();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription, "`subscription` cannot be null.");
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drainRequests();
+    }
+
+    @Override
+    public void onNext(T element) {
+        Objects.requireNonNull(element, "`element` cannot be null.");
+        if (done) {
+            return;
+        }
+        final long remaining = outstanding.get() == Long.MAX_VALUE ? Long.MAX_VALUE : outstanding.decrementAndGet();
+        final Option<R> result;
+        try {
+            result = Objects.requireNonNull(function.apply(element), "`function` result cannot be null.");
+        }
+        catch (Throwable e) {
+            done = true;
+            cancel();
+            emitError(e);
+            return;
+        }
+        if (result.isSome()) {
+            emitNext(result.unwrap());
+        }
+        else if (completeOnNone) {
+            done = true;
+            cancel();
+            emitComplete();
+        }
+        else if (remaining != Long.MAX_VALUE) {
+            dropped++;
+        }
+        // Once the upstream requests are exhausted, the dropped elements must be replaced whatever the last
+        // result was, or the stream stalls.
+        if (dropped != 0 && (dropped >= batchSize || remaining == 0)) {
+            addCapped(pending, dropped);
+            dropped = 0;
+            drainRequests();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "`throwable` cannot be null.");
+        if (done) {
+            return;
+        }
+        done = true;
+        emitError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        emitComplete();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            emitError(new IllegalArgumentException("Rule 3.9: the requested amount must be positive, got " + n));
+            return;
+        }
+        addCapped(pending, n);
+        drainRequests();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        drainRequests();
+    }
+
+    private void drainRequests() {
+        if (requestWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            final Subscription subscription = upstream.get();
+            if (subscription != null) {
+                if (cancelled) {
+                    if (!upstreamCancelled) {
+                        upstreamCancelled = true;
+                        subscription.cancel();
+                    }
+                }
+                else if (armed) {
+                    final long requested = pending.getAndSet(0);
+                    if (requested > 0) {
+                        addCapped(outstanding, requested);
+                        subscription.request(requested);
+                    }
+                }
+            }
+            missed = requestWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitNext(R value) {
+        if (emitWip.get() == 0 && emitWip.compareAndSet(0, 1)) {
+            downstream.onNext(value);
+            if (emitWip.decrementAndGet() != 0) {
+                terminate();
+            }
+        }
+    }
+
+    private void emitError(Throwable throwable) {
+        if (error.compareAndSet(null, throwable) && emitWip.getAndIncrement() == 0) {
+            terminate();
+        }
+    }
+
+    private void emitComplete() {
+        if (emitWip.getAndIncrement() == 0) {
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        final Throwable throwable = error.get();
+        if (throwable != null) {
+            downstream.onError(throwable);
+        }
+        else {
+            downstream.onComplete();
+        }
+    }
+
+    private static void addCapped(AtomicLong counter, long n) {
+        long current;
+        long next;
+        do {
+            current = counter.get();
+            if (current == Long.MAX_VALUE) {
+                return;
+            }
+            next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+        } while (!counter.compareAndSet(current, next));
+    }
+
+    private enum CancelledSubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+
+        }
+
+        @Override
+        public void cancel() {
+
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.flow;
+
+import fr.songbird.rapi.option.Option;
+import org.reactivestreams.Processor;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Reactive Streams {@link Processor}s streaming {@link Option} values.
+ * <pre>{@code
+ * final Processor<Option<Record>, Record> present = OptionProcessors.flatten();
+ * parsedRecords.subscribe(present); // `parsedRecords` publishes Option<Record>
+ * present.subscribe(sink); // `sink` only receives the present records
+ * }</pre>
+ * Every processor honors the downstream demand, never buffers, and accepts a single subscriber.
+ * They are written against the {@code org.reactivestreams} interfaces (an optional dependency of RAPI) so that
+ * they run on Java 8; on Java 9+, {@code org.reactivestreams.FlowAdapters} bridges them to
+ * {@code java.util.concurrent.Flow}.
+ * @since 19/10/26
+ */
+public final class OptionProcessors {
+
+    /**
+     * How many dropped elements are replaced by a single upstream request, by default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private OptionProcessors() {
+
+    }
+
+    /**
+     * @param <T> The contained value type.
+     * @return A new processor emitting the contained values and dropping the {@code None} elements.
+     */
+    public static <T> Processor<Option<T>, T> flatten() {
+        return flatten(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize How many dropped elements are replaced by a single upstream request.
+     * @param <T> The contained value type.
+     * @return A new processor emitting the contained values and dropping the {@code None} elements.
+     * @throws IllegalArgumentException If {@code batchSize} isn't positive.
+     */
+    public static <T> Processor<Option<T>, T> flatten(int batchSize) {
+        return new OptionProcessor<>(Function.identity(), false, batchSize);
+    }
+
+    /**
+     * @param function Maps every element to an option.
+     * @param <T> The upstream element type.
+     * @param <R> The downstream element type.
+     * @return A new processor emitting the values contained by the {@code function} results and dropping the
+     * {@code None} results.
+     * @throws NullPointerException If {@code function} is null.
+     */
+    public static <T, R> Processor<T, R> mapOption(Function<T, Option<R>> function) {
+        return mapOption(function, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param function Maps every element to an option.
+     * @param batchSize How many dropped elements are replaced by a single upstream request.
+     * @param <T> The upstream element type.
+     * @param <R> The downstream element type.
+     * @return A new processor emitting the values contained by the {@code function} results and dropping the
+     * {@code None} results.
+     * @throws NullPointerException If {@code function} is null.
+     * @throws IllegalArgumentException If {@code batchSize} isn't positive.
+     */
+    public static <T, R> Processor<T, R> mapOption(Function<T, Option<R>> function, int batchSize) {
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        return new OptionProcessor<>(function, false, batchSize);
+    }
+
+    /**
+     * @param <T> The contained value type.
+     * @return A new processor emitting the contained values until the first {@code None} element, which cancels
+     * the upstream subscription and completes the downstream one.
+     */
+    public static <T> Processor<Option<T>, T> takeWhileSome() {
+        return new OptionProcessor<>(Function.identity(), true, DEFAULT_BATCH_SIZE);
+    }
+}
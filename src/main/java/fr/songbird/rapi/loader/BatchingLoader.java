@@ -0,0 +1,233 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.loader;
+
+import fr.songbird.rapi.option.Option;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups into bulk calls.
+ * <pre>{@code
+ * final BatchingLoader<UserId, User> users = new BatchingLoader<>(userStore::findAll, 500, true, scheduler, 2, TimeUnit.MILLISECONDS);
+ * final CompletableFuture<Option<User>> author = users.load(post.authorId());
+ * final CompletableFuture<Option<User>> editor = users.load(post.editorId()); // same bulk call
+ * }</pre>
+ * The keys requested since the last bulk call are collected in a batch, deduplicated; the batch is dispatched
+ * to the bulk function once it holds {@code maxBatchSize} keys, once the tick started by its first key
+ * elapses, or on {@link #dispatch()}. Every future is then completed with the value the bulk function
+ * returned for its key, or with {@code None} if it returned none; if the bulk function throws, every future
+ * of the batch completes exceptionally, and an {@link Error} is rethrown once they are.
+ * <p>
+ * The bulk function runs on the thread dispatching the batch: the thread whose {@link #load(Object)} filled
+ * it, the scheduler thread, or the thread calling {@link #dispatch()}.
+ * <p>
+ * A cached loader also remembers the future of every key it loaded successfully, so that a key is fetched
+ * once per loader; create one loader per request to keep that cache short-lived.
+ * <p>
+ * {@code BatchingLoader} is thread-safe.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ * @since 19/10/26
+ */
+public final class BatchingLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> bulkFunction;
+    private final int maxBatchSize;
+    private final ConcurrentMap<K, CompletableFuture<Option<V>>> cache;
+    private final ScheduledExecutorService scheduler;
+    private final long tickNanos;
+
+    private final Object lock = new Object();
+
+    /**
+     * The keys requested since the last dispatch, guarded by {@code lock}.
+     */
+    private Map<K, CompletableFuture<Option<V>>> batch = new LinkedHashMap<>();
+
+    /**
+     * Identifies the current batch, so that the tick started for a batch already dispatched is ignored.
+     * Guarded by {@code lock}.
+     */
+    private long batchId;
+
+    /**
+     * Initializes a loader dispatching its batches when they're full or on {@link #dispatch()}.
+     * @param bulkFunction Loads the values of a set of keys; the keys without value may be left out.
+     * @param maxBatchSize The maximum number of keys per bulk call.
+     * @param cached Whether the successfully loaded keys are remembered.
+     * @throws NullPointerException If {@code bulkFunction} is null.
+     * @throws IllegalArgumentException If {@code maxBatchSize} isn't positive.
+     */
+    public BatchingLoader(Function<Set<K>, Map<K, V>> bulkFunction, int maxBatchSize, boolean cached) {
+        this(bulkFunction, maxBatchSize, cached, null, 0);
+    }
+
+    /**
+     * Initializes a loader dispatching its batches when they're full, when their tick elapses or on
+     * {@link #dispatch()}.
+     * @param bulkFunction Loads the values of a set of keys; the keys without value may be left out.
+     * @param maxBatchSize The maximum number of keys per bulk call.
+     * @param cached Whether the successfully loaded keys are remembered.
+     * @param scheduler Dispatches the batches at the end of their tick.
+     * @param tick How long a batch waits for more keys, from its first key.
+     * @param unit The tick unit.
+     * @throws NullPointerException If {@code bulkFunction}, {@code scheduler} or {@code unit} is null.
+     * @throws IllegalArgumentException If {@code maxBatchSize} or {@code tick} isn't positive.
+     */
+    public BatchingLoader(Function<Set<K>, Map<K, V>> bulkFunction, int maxBatchSize, boolean cached,
+                          ScheduledExecutorService scheduler, long tick, TimeUnit unit) {
+        this(bulkFunction, maxBatchSize, cached, Objects.requireNonNull(scheduler, "`scheduler` cannot be null."),
+                Objects.requireNonNull(unit, "`unit` cannot be null.").toNanos(tick));
+        if (tick <= 0) {
+            throw new IllegalArgumentException("`tick` must be positive: " + tick);
+        }
+    }
+
+    private BatchingLoader(Function<Set<K>, Map<K, V>> bulkFunction, int maxBatchSize, boolean cached,
+                           ScheduledExecutorService scheduler, long tickNanos) {
+        Objects.requireNonNull(bulkFunction, "`bulkFunction` cannot be null.");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("`maxBatchSize` must be positive: " + maxBatchSize);
+        }
+        this.bulkFunction = bulkFunction;
+        this.maxBatchSize = maxBatchSize;
+        this.cache = cached ? new ConcurrentHashMap<>() : null;
+        this.scheduler = scheduler;
+        this.tickNanos = tickNanos;
+    }
+
+    /**
+     * Adds {@code key} to the current batch, unless it's already in it (or cached).
+     * @param key The key to load.
+     * @return A future completed with the value of {@code key} once its batch is loaded, {@code None} if it has none.
+     * @throws NullPointerException If {@code key} is null.
+     * @throws RejectedExecutionException If the scheduler rejects the tick of the new batch {@code key} starts;
+     * {@code key} isn't loaded then.
+     */
+    public CompletableFuture<Option<V>> load(K key) {
+        Objects.requireNonNull(key, "`key` cannot be null.");
+        if (cache != null) {
+            final CompletableFuture<Option<V>> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final CompletableFuture<Option<V>> future;
+        Map<K, CompletableFuture<Option<V>>> full = null;
+        synchronized (lock) {
+            final CompletableFuture<Option<V>> pending = batch.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            if (cache != null) {
+                final CompletableFuture<Option<V>> cached = cache.get(key); // loaded in the meantime
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            if (batch.isEmpty() && scheduler != null && maxBatchSize > 1) {
+                // scheduled first: if the scheduler rejects the tick, nothing is left pending.
+                final long id = batchId;
+                scheduler.schedule(() -> dispatchOnTick(id), tickNanos, TimeUnit.NANOSECONDS);
+            }
+            future = new CompletableFuture<>();
+            batch.put(key, future);
+            if (cache != null) {
+                cache.put(key, future);
+            }
+            if (batch.size() >= maxBatchSize) {
+                full = takeBatch();
+            }
+        }
+        if (full != null) {
+            dispatchBatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Dispatches the current batch now, if it holds any key.
+     */
+    public void dispatch() {
+        final Map<K, CompletableFuture<Option<V>>> current;
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            current = takeBatch();
+        }
+        dispatchBatch(current);
+    }
+
+    /**
+     * Dispatches the batch {@code id} at the end of its tick, unless it has already been dispatched.
+     */
+    private void dispatchOnTick(long id) {
+        final Map<K, CompletableFuture<Option<V>>> current;
+        synchronized (lock) {
+            if (id != batchId || batch.isEmpty()) {
+                return;
+            }
+            current = takeBatch();
+        }
+        dispatchBatch(current);
+    }
+
+    /**
+     * Replaces the current batch by a new one; called with {@code lock} held.
+     * @return The replaced batch.
+     */
+    private Map<K, CompletableFuture<Option<V>>> takeBatch() {
+        final Map<K, CompletableFuture<Option<V>>> current = batch;
+        batch = new LinkedHashMap<>();
+        batchId++;
+        return current;
+    }
+
+    private void dispatchBatch(Map<K, CompletableFuture<Option<V>>> keys) {
+        final Map<K, V> values;
+        try {
+            values = Objects.requireNonNull(bulkFunction.apply(Collections.unmodifiableSet(keys.keySet())),
+                    "`bulkFunction` result cannot be null.");
+        }
+        catch (RuntimeException | Error e) {
+            for (final Map.Entry<K, CompletableFuture<Option<V>>> entry : keys.entrySet()) {
+                if (cache != null) {
+                    cache.remove(entry.getKey(), entry.getValue()); // the next load retries
+                }
+                entry.getValue().completeExceptionally(e);
+            }
+            if (e instanceof Error) {
+                throw (Error) e; // not swallowed, on whichever thread dispatched the batch
+            }
+            return;
+        }
+        for (final Map.Entry<K, CompletableFuture<Option<V>>> entry : keys.entrySet()) {
+            entry.getValue().complete(Option.ofNullable(values.get(entry.getKey())));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+/**
+ * The preallocated {@code Some} instances handed out by {@link Option#of(Object)}.
+ * <p>
+ * The cached {@code Integer} and {@code Long} range is {@code [-128, 127]} by default, and can be changed with the
+ * {@value #LOW_PROPERTY} and {@value #HIGH_PROPERTY} system properties, read once. A range that is empty or holds
+ * more than {@value #MAX_RANGE} values is ignored.
+ * @since 19/10/26
+ */
+final class CanonicalSomes {
+
+    static final String LOW_PROPERTY = "fr.songbird.rapi.option.cache.low";
+    static final String HIGH_PROPERTY = "fr.songbird.rapi.option.cache.high";
+
+    /**
+     * The largest cached range, in values; both caches then take a few megabytes.
+     */
+    static final int MAX_RANGE = 1 << 16;
+
+    static final Some<Boolean> TRUE = new Some<>(Boolean.TRUE);
+    static final Some<Boolean> FALSE = new Some<>(Boolean.FALSE);
+
+    /**
+     * The {@code Some} of every constant of the enum classes wrapped so far, indexed by ordinal.
+     */
+    private static final ClassValue<Some<?>[]> ENUM_SOMES = new ClassValue<Some<?>[]>() {
+        @Override
+        protected Some<?>[] computeValue(Class<?> type) {
+            final Object[] constants = type.getEnumConstants();
+            final Some<?>[] somes = new Some<?>[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                somes[i] = new Some<>(constants[i]);
+            }
+            return somes;
+        }
+    };
+
+    private CanonicalSomes() {
+
+    }
+
+    /**
+     * @param value The value to wrap, not null.
+     * @param <T> The contained value type.
+     * @return The canonical {@code Some} of {@code value} if it has one, a new {@code Some} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Some<T> of(T value) {
+        if (value instanceof Boolean) {
+            return (Some<T>) ((Boolean) value ? TRUE : FALSE);
+        }
+        if (value instanceof Integer) {
+            final int i = (Integer) value;
+            if (i >= Numbers.LOW && i <= Numbers.HIGH) {
+                return (Some<T>) Numbers.INTEGERS[i - Numbers.LOW];
+            }
+        }
+        else if (value instanceof Long) {
+            final long l = (Long) value;
+            if (l >= Numbers.LOW && l <= Numbers.HIGH) {
+                return (Some<T>) Numbers.LONGS[(int) l - Numbers.LOW];
+            }
+        }
+        else if (value instanceof Enum) {
+            final Enum<?> constant = (Enum<?>) value;
+            return (Some<T>) ENUM_SOMES.get(constant.getDeclaringClass())[constant.ordinal()];
+        }
+        return new Some<>(value);
+    }
+
+    /**
+     * @param value The value to wrap.
+     * @return The canonical {@code Some} of {@code value} if it's within the cached range, a new {@code Some} otherwise.
+     */
+    static Some<Integer> ofInt(int value) {
+        return value >= Numbers.LOW && value <= Numbers.HIGH ? Numbers.INTEGERS[value - Numbers.LOW] : new Some<>(value);
+    }
+
+    /**
+     * @param value The value to wrap.
+     * @return The canonical {@code Some} of {@code value} if it's within the cached range, a new {@code Some} otherwise.
+     */
+    static Some<Long> ofLong(long value) {
+        return value >= Numbers.LOW && value <= Numbers.HIGH ? Numbers.LONGS[(int) value - Numbers.LOW] : new Some<>(value);
+    }
+
+    /**
+     * The cached numbers, allocated on first use.
+     */
+    private static final class Numbers {
+
+        static final int LOW;
+        static final int HIGH;
+        static final Some<Integer>[] INTEGERS;
+        static final Some<Long>[] LONGS;
+
+        static {
+            int low = Integer.getInteger(LOW_PROPERTY, -128);
+            int high = Integer.getInteger(HIGH_PROPERTY, 127);
+            if (low > high || (long) high - low >= MAX_RANGE) {
+                low = -128;
+                high = 127;
+            }
+            LOW = low;
+            HIGH = high;
+            INTEGERS = newArray(high - low + 1);
+            LONGS = newArray(high - low + 1);
+            for (int i = 0; i < INTEGERS.length; i++) {
+                INTEGERS[i] = new Some<>(low + i);
+                LONGS[i] = new Some<>((long) low + i);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Some<T>[] newArray(int length) {
+            return (Some<T>[]) new Some<?>[length];
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import fr.songbird.rapi.ref.ReferenceHandler;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An {@link Option} whose {@code map}, {@code and}, {@code andThen}, {@code or} and {@code orElse} steps are
+ * recorded instead of being executed.
+ * <p>
+ * The chain is evaluated once, when a terminal operation ({@code isSome}, {@code unwrapOr}, {@code mapOr}...)
+ * is called, and the result is memoized: further terminal operations don't recompute anything.
+ * <pre>{@code
+ * final DeferredOption<Integer> length = DeferredOption.defer(() -> lookup(key))
+ *     .map(String::trim)
+ *     .map(String::length); // nothing has run yet
+ * if (shortCircuited) {
+ *     return; // `lookup`, `trim` and `length` are never called
+ * }
+ * final int l = length.unwrapOr(0); // the whole chain runs here, once
+ * }</pre>
+ * <strong>Note</strong>: {@code DeferredOption} is not thread-safe, like {@link ReferenceHandler}.
+ * @since 19/10/26
+ */
+public final class DeferredOption<T> implements Option<T> {
+
+    /**
+     * The previous link of the chain, {@code null} for the root or once evaluated.
+     */
+    private DeferredOption<?> parent;
+
+    /**
+     * Computes this link from the parent result, {@code null} once evaluated.
+     */
+    private Function<Option<Object>, Option<Object>> step;
+
+    /**
+     * The memoized result, {@code null} until evaluated.
+     */
+    private Option<T> result;
+
+    @SuppressWarnings("unchecked")
+    private DeferredOption(DeferredOption<?> parent, Function<? super Option<Object>, ? extends Option<?>> step) {
+        this.parent = parent;
+        this.step = (Function<Option<Object>, Option<Object>>) step;
+    }
+
+    /**
+     * Defers the computation of an {@link Option}.
+     * @param computation The computation to run on the first terminal operation.
+     * @param <T> The contained value type.
+     * @return A new unevaluated {@code DeferredOption}.
+     * @throws NullPointerException If {@code computation} is null.
+     */
+    public static <T> DeferredOption<T> defer(Supplier<Option<T>> computation) {
+        Objects.requireNonNull(computation, "`computation` cannot be null.");
+        return new DeferredOption<>(null, ignored -> computation.get());
+    }
+
+    /**
+     * Wraps an already computed {@link Option} to chain deferred steps on it.
+     * @param option The option to wrap.
+     * @param <T> The contained value type.
+     * @return A new {@code DeferredOption} already evaluated to {@code option}.
+     * @throws NullPointerException If {@code option} is null.
+     */
+    public static <T> DeferredOption<T> of(Option<T> option) {
+        Objects.requireNonNull(option, "`option` cannot be null.");
+        final DeferredOption<T> deferred = new DeferredOption<>(null, null);
+        deferred.result = option;
+        return deferred;
+    }
+
+    /**
+     * @return {@code true} if the chain has already been evaluated, {@code false} otherwise.
+     */
+    public boolean isEvaluated() {
+        return result != null;
+    }
+
+    /**
+     * Evaluates the chain (if it isn't already) and returns its result.
+     * <p>
+     * Evaluation is iterative, so arbitrarily long chains don't overflow the stack. Every pending link is
+     * memoized on the way, so chains sharing a prefix evaluate it once.
+     * @return The evaluated {@link Option}.
+     * @throws NullPointerException If a recorded step returns null.
+     */
+    @SuppressWarnings("unchecked")
+    public Option<T> evaluate() {
+        if (result != null) {
+            return result;
+        }
+        final ArrayDeque<DeferredOption<?>> pending = new ArrayDeque<>();
+        DeferredOption<?> link = this;
+        while (link != null && link.result == null) {
+            pending.push(link);
+            link = link.parent;
+        }
+        Option<Object> current = link == null ? null : (Option<Object>) link.result;
+        while (!pending.isEmpty()) {
+            final DeferredOption<Object> next = (DeferredOption<Object>) pending.pop();
+            current = Objects.requireNonNull(next.step.apply(current), "A deferred step result cannot be null.");
+            next.result = current;
+            next.parent = null;
+            next.step = null;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isSome() {
+        return evaluate().isSome();
+    }
+
+    @Override
+    public boolean isNone() {
+        return evaluate().isNone();
+    }
+
+    @Override
+    public T expect(String customErrorMessage) {
+        return evaluate().expect(customErrorMessage);
+    }
+
+    @Override
+    public T unwrap() {
+        return evaluate().unwrap();
+    }
+
+    @Override
+    public T unwrapOr(T defaultValue) {
+        return evaluate().unwrapOr(defaultValue);
+    }
+
+    @Override
+    public T unwrapOrElse(Supplier<T> expression) {
+        return evaluate().unwrapOrElse(expression);
+    }
+
+    /**
+     * Records a {@code map} step.
+     * @see Option#map(Function)
+     */
+    @Override
+    public <U> DeferredOption<U> map(Function<T, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return new DeferredOption<>(this, option -> self(option).map(appliedFunction));
+    }
+
+    @Override
+    public <U> U mapOr(U defaultValue, Function<T, U> appliedFunction) {
+        return evaluate().mapOr(defaultValue, appliedFunction);
+    }
+
+    @Override
+    public <U> U mapOrElse(Supplier<U> defaultAction, Function<T, U> isSomeAction) {
+        return evaluate().mapOrElse(defaultAction, isSomeAction);
+    }
+
+    /**
+     * Records an {@code and} step.
+     * @see Option#and(Option)
+     */
+    @Override
+    public <U> DeferredOption<U> and(Option<U> opt) {
+        Objects.requireNonNull(opt, "opt cannot be null.");
+        return new DeferredOption<>(this, option -> option.and(opt));
+    }
+
+    /**
+     * Records an {@code andThen} step.
+     * @see Option#andThen(Function)
+     */
+    @Override
+    public <U> DeferredOption<U> andThen(Function<T, Option<U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return new DeferredOption<>(this, option -> self(option).andThen(function));
+    }
+
+    /**
+     * Records an {@code or} step.
+     * @see Option#or(Option)
+     */
+    @Override
+    public DeferredOption<T> or(Option<T> option) {
+        Objects.requireNonNull(option, "option cannot be null.");
+        return new DeferredOption<>(this, current -> self(current).or(option));
+    }
+
+    /**
+     * Records an {@code orElse} step.
+     * @see Option#orElse(Supplier)
+     */
+    @Override
+    public DeferredOption<T> orElse(Supplier<Option<T>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return new DeferredOption<>(this, current -> self(current).orElse(function));
+    }
+
+    @Override
+    public T getOrInsert(ReferenceHandler<Option<T>> option, T value) {
+        return evaluate().getOrInsert(option, value);
+    }
+
+    @Override
+    public T getOrInsert(AtomicReference<Option<T>> option, T value) {
+        return evaluate().getOrInsert(option, value);
+    }
+
+    @Override
+    public T getOrInsertWith(ReferenceHandler<Option<T>> option, Supplier<T> function) {
+        return evaluate().getOrInsertWith(option, function);
+    }
+
+    @Override
+    public T getOrInsertWith(AtomicReference<Option<T>> option, Supplier<T> function) {
+        return evaluate().getOrInsertWith(option, function);
+    }
+
+    @Override
+    public Option<T> take(ReferenceHandler<Option<T>> option) {
+        return evaluate().take(option);
+    }
+
+    @Override
+    public Option<T> take(AtomicReference<Option<T>> option) {
+        return evaluate().take(option);
+    }
+
+    @Override
+    public Optional<T> toOptional() {
+        return evaluate().toOptional();
+    }
+
+    @Override
+    public T toNullable() {
+        return evaluate().toNullable();
+    }
+
+    /**
+     * Evaluates the chain then compares its result with {@code anObject}.
+     * @param anObject The other option to compare.
+     * @return {@code true} if the evaluated option is equal to {@code anObject}, {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object anObject) {
+        return evaluate().equals(anObject);
+    }
+
+    /**
+     * Evaluates the chain then returns the hash code of its result.
+     * @return The hash code of the evaluated option.
+     */
+    @Override
+    public int hashCode() {
+        return evaluate().hashCode();
+    }
+
+    /**
+     * Types back the result of this link, as received by the steps recorded on it.
+     */
+    @SuppressWarnings("unchecked")
+    private Option<T> self(Option<Object> result) {
+        return (Option<T>) (Option<?>) result;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A reusable, mutable option slot, for loops that would otherwise allocate a {@link Some} per element.
+ * <pre>{@code
+ * final MutableOption<String> token = new MutableOption<>();
+ * for (final String line : lines) {
+ *     parser.nextToken(line, token); // sets or clears `token`
+ *     if (token.isSome()) {
+ *         counts.merge(token.unwrap(), 1, Integer::sum);
+ *     }
+ * }
+ * }</pre>
+ * A {@code MutableOption} is not an {@link Option}: it offers the read-only combinators, the in-place
+ * {@link #getOrInsert(Object)}, {@link #getOrInsertWith(Supplier)} and {@link #take()} (which need no
+ * {@code ReferenceHandler}), and {@link #freeze()} returns an immutable copy when the value must escape.
+ * <p>
+ * <strong>Note</strong>: {@code MutableOption} is not thread-safe, keep it confined to one thread.
+ * @since 19/10/26
+ */
+public final class MutableOption<T> {
+
+    private T value;
+
+    /**
+     * Initializes an empty {@code MutableOption}.
+     */
+    public MutableOption() {
+
+    }
+
+    /**
+     * @param value The new contained value.
+     * @return This {@code MutableOption}.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public MutableOption<T> set(T value) {
+        this.value = Objects.requireNonNull(value, "`value` cannot be null.");
+        return this;
+    }
+
+    /**
+     * @param option The option to copy.
+     * @return This {@code MutableOption}, containing the {@code option} value if any, empty otherwise.
+     * @throws NullPointerException If {@code option} is null.
+     */
+    public MutableOption<T> set(Option<T> option) {
+        Objects.requireNonNull(option, "`option` cannot be null.");
+        this.value = option.toNullable();
+        return this;
+    }
+
+    /**
+     * Removes the contained value, if any.
+     * @return This {@code MutableOption}.
+     */
+    public MutableOption<T> clear() {
+        this.value = null;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if a value is contained, {@code false} otherwise.
+     */
+    public boolean isSome() {
+        return value != null;
+    }
+
+    /**
+     * @return {@code true} if no value is contained, {@code false} otherwise.
+     */
+    public boolean isNone() {
+        return value == null;
+    }
+
+    /**
+     * @param customErrorMessage The error message if no value is contained.
+     * @return The contained value.
+     * @throws RuntimeException If no value is contained.
+     */
+    public T expect(String customErrorMessage) {
+        Objects.requireNonNull(customErrorMessage, "customErrorMessage cannot be null.");
+        if (value == null) {
+            throw new RuntimeException(customErrorMessage);
+        }
+        return value;
+    }
+
+    /**
+     * @return The contained value.
+     * @throws RuntimeException If no value is contained.
+     */
+    public T unwrap() {
+        if (value == null) {
+            throw new RuntimeException("called `"
+                    + MutableOption.class.getName() + ".unwrap()` on an empty `MutableOption`");
+        }
+        return value;
+    }
+
+    /**
+     * @param defaultValue The value returned if no value is contained.
+     * @return The contained value, {@code defaultValue} otherwise.
+     */
+    public T unwrapOr(T defaultValue) {
+        Objects.requireNonNull(defaultValue, "defaultValue cannot be null.");
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @param expression Computes the value returned if no value is contained.
+     * @return The contained value, the {@code expression} result otherwise.
+     */
+    public T unwrapOrElse(Supplier<T> expression) {
+        Objects.requireNonNull(expression, "`expression` cannot be null");
+        return value != null ? value : Objects.requireNonNull(expression.get(), "The `expression` result cannot be null.");
+    }
+
+    /**
+     * @param appliedFunction Maps the contained value.
+     * @param <U> The mapped value type.
+     * @return A new {@link Some} containing the mapped value, {@code None} if no value is contained.
+     */
+    public <U> Option<U> map(Function<T, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return value != null ? new Some<>(appliedFunction.apply(value)) : None.none();
+    }
+
+    /**
+     * @param defaultValue The value returned if no value is contained.
+     * @param appliedFunction Maps the contained value.
+     * @param <U> The mapped value type.
+     * @return The mapped value, {@code defaultValue} otherwise.
+     */
+    public <U> U mapOr(U defaultValue, Function<T, U> appliedFunction) {
+        Objects.requireNonNull(defaultValue, "defaultValue cannot be null.");
+        Objects.requireNonNull(appliedFunction, "appliedFunction cannot be null.");
+        return value != null ? Objects.requireNonNull(appliedFunction.apply(value), "result cannot be null.") : defaultValue;
+    }
+
+    /**
+     * @param defaultAction Computes the value returned if no value is contained.
+     * @param isSomeAction Maps the contained value.
+     * @param <U> The mapped value type.
+     * @return The mapped value, the {@code defaultAction} result otherwise.
+     */
+    public <U> U mapOrElse(Supplier<U> defaultAction, Function<T, U> isSomeAction) {
+        Objects.requireNonNull(defaultAction, "defaultAction cannot be null.");
+        Objects.requireNonNull(isSomeAction, "isSomeAction cannot be null.");
+        final U result = value != null ? isSomeAction.apply(value) : defaultAction.get();
+        return Objects.requireNonNull(result, "result cannot be null.");
+    }
+
+    /**
+     * @param function Maps the contained value to an option.
+     * @param <U> The mapped value type.
+     * @return The {@code function} result, {@code None} if no value is contained.
+     */
+    public <U> Option<U> andThen(Function<T, Option<U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return value != null ? function.apply(value) : None.none();
+    }
+
+    /**
+     * @param opt The option returned if a value is contained.
+     * @param <U> The {@code opt} value type.
+     * @return {@code opt}, {@code None} if no value is contained.
+     */
+    public <U> Option<U> and(Option<U> opt) {
+        Objects.requireNonNull(opt, "opt cannot be null.");
+        return value != null ? opt : None.none();
+    }
+
+    /**
+     * @param option The option returned if no value is contained.
+     * @return A new {@link Some} containing the current value, {@code option} if no value is contained.
+     */
+    public Option<T> or(Option<T> option) {
+        Objects.requireNonNull(option, "option cannot be null.");
+        return value != null ? new Some<>(value) : option;
+    }
+
+    /**
+     * @param function Computes the option returned if no value is contained.
+     * @return A new {@link Some} containing the current value, the {@code function} result if no value is contained.
+     */
+    public Option<T> orElse(Supplier<Option<T>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return value != null ? new Some<>(value) : function.get();
+    }
+
+    /**
+     * @param value The value inserted if no value is contained.
+     * @return The contained value, {@code value} once inserted otherwise.
+     */
+    public T getOrInsert(T value) {
+        Objects.requireNonNull(value, "`value` cannot be null.");
+        if (this.value == null) {
+            this.value = value;
+        }
+        return this.value;
+    }
+
+    /**
+     * @param function Computes the value inserted if no value is contained.
+     * @return The contained value, the {@code function} result once inserted otherwise.
+     */
+    public T getOrInsertWith(Supplier<T> function) {
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        if (value == null) {
+            value = Objects.requireNonNull(function.get(), "`function` result cannot be null.");
+        }
+        return value;
+    }
+
+    /**
+     * Moves the contained value out, leaving this {@code MutableOption} empty.
+     * @return A new {@link Some} containing the value, {@code None} if no value was contained.
+     */
+    public Option<T> take() {
+        final Option<T> taken = freeze();
+        value = null;
+        return taken;
+    }
+
+    /**
+     * @return A new {@link Some} containing the current value, {@code None} if no value is contained.
+     * Later changes of this {@code MutableOption} don't affect the returned option.
+     */
+    public Option<T> freeze() {
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * @return A {@link Optional} holding the current value, {@link Optional#empty()} if no value is contained.
+     */
+    public Optional<T> toOptional() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * @return The current value, {@code null} if no value is contained.
+     */
+    public T toNullable() {
+        return value;
+    }
+}
@@ -17,6 +17,7 @@ package fr.songbird.rapi.option;
 import fr.songbird.rapi.ref.ReferenceHandler;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -26,10 +27,28 @@ import java.util.function.Supplier;
  */
 public class None<T> implements Option<T> {
 
+    /**
+     * The shared {@code None} instance, see {@link #none()}.
+     */
+    private static final None<?> NONE = new None<>();
+
     public None() {
 
     }
 
+    /**
+     * Returns the shared {@code None} instance.
+     * <p>
+     * {@code None} holds no state, so one instance can stand for every type: prefer this factory
+     * to {@code new None<>()} on hot paths, it doesn't allocate.
+     * @param <T> The (absent) value type.
+     * @return The shared {@code None} instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> None<T> none() {
+        return (None<T>) NONE;
+    }
+
     @Override
     public boolean isSome() {
         return false;
@@ -69,7 +88,7 @@ public class None<T> implements Option<T> {
     @Override
     public <U> Option<U> map(Function<T, U> appliedFunction) {
         Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
-        return new None<>();
+        return none();
     }
 
     @Override
@@ -92,13 +111,13 @@ public class None<T> implements Option<T> {
     @Override
     public <U> Option<U> and(Option<U> opt) {
         Objects.requireNonNull(opt, "opt cannot be null.");
-        return new None<>();
+        return none();
     }
 
     @Override
     public <U> Option<U> andThen(Function<T, Option<U>> function) {
         Objects.requireNonNull(function, "function cannot be null.");
-        return new None<>();
+        return none();
     }
 
     @Override
@@ -160,6 +179,16 @@ public class None<T> implements Option<T> {
         return this; // `option` should be `this`, so we return `this` immediately.
     }
 
+    @Override
+    public Optional<T> toOptional() {
+        return Optional.empty();
+    }
+
+    @Override
+    public T toNullable() {
+        return null;
+    }
+
     /**
      * Compares the contained values only.
      * <pre>{@code
@@ -179,4 +208,12 @@ public class None<T> implements Option<T> {
         }
         return false;
     }
+
+    /**
+     * @return {@code 0}, like {@link Optional#empty()}: every {@code None} is equal.
+     */
+    @Override
+    public int hashCode() {
+        return 0;
+    }
 }
@@ -16,8 +16,11 @@ package fr.songbird.rapi.option;
 
 import fr.songbird.rapi.ref.ReferenceHandler;
 
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -82,6 +85,116 @@ import java.util.function.Supplier;
  */
 public interface Option<T> {
 
+    /**
+     * Wraps a nullable reference.
+     * <pre>{@code
+     * Option.ofNullable(System.getenv("HOME")); // Some("/home/...") or None
+     * }</pre>
+     * @param value The nullable reference.
+     * @param <T> The contained value type.
+     * @return {@code Some} if {@code value} isn't null, see {@link #of(Object)}, the shared {@code None}
+     * instance otherwise.
+     */
+    static <T> Option<T> ofNullable(T value) {
+        return value == null ? None.none() : CanonicalSomes.of(value);
+    }
+
+    /**
+     * Wraps a value, without allocating for the values that repeat the most.
+     * <pre>{@code
+     * Option.of(Boolean.TRUE) == Option.of(Boolean.TRUE); // true
+     * Option.of(Status.OK) == Option.of(Status.OK); // true, for every enum constant
+     * Option.of(404) == Option.of(404); // false, out of the default cached range
+     * }</pre>
+     * Booleans, enum constants and the {@code Integer} and {@code Long} values of {@code [-128, 127]} are
+     * wrapped into preallocated {@link Some} instances; the constants of an enum class are wrapped on its first
+     * use. The cached number range can be changed with the {@code fr.songbird.rapi.option.cache.low} and
+     * {@code fr.songbird.rapi.option.cache.high} system properties. Every other value is wrapped into a new
+     * {@code Some}.
+     * @param value The value to wrap.
+     * @param <T> The contained value type.
+     * @return A {@code Some} containing {@code value}, possibly shared.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    static <T> Option<T> of(T value) {
+        Objects.requireNonNull(value, "value cannot be null.");
+        return CanonicalSomes.of(value);
+    }
+
+    /**
+     * Converts a {@link Optional} to an {@code Option}.
+     * @param optional The optional to convert.
+     * @param <T> The contained value type.
+     * @return {@code Some} if {@code optional} is present, the shared {@code None} instance otherwise.
+     * @throws NullPointerException If {@code optional} is null.
+     */
+    static <T> Option<T> fromOptional(Optional<T> optional) {
+        Objects.requireNonNull(optional, "`optional` cannot be null.");
+        return optional.isPresent() ? new Some<>(optional.get()) : None.none();
+    }
+
+    /**
+     * Follows {@code step} from {@code seed} until it returns {@code None}, in constant stack space.
+     * <p>
+     * This is the iterative form of a recursive {@code andThen} chain such as
+     * {@code resolve(x) = parent(x).andThen(this::resolve)}, which nests one call per step and overflows
+     * the stack on deep inputs:
+     * <pre>{@code
+     * final Option<Node> root = Option.loop(node, Node::parent); // walks the parent links up to the root
+     * }</pre>
+     * Nothing is allocated per step besides what {@code step} returns.
+     * @param seed The first value.
+     * @param step Computes the next value from the current one, {@code None} ending the loop.
+     * @param <T> The value type.
+     * @return {@code Some} holding the last value reached.
+     * @throws NullPointerException If either {@code seed}, {@code step} or a {@code step} result is null.
+     */
+    static <T> Option<T> loop(T seed, Function<T, Option<T>> step) {
+        Objects.requireNonNull(seed, "`seed` cannot be null.");
+        Objects.requireNonNull(step, "`step` cannot be null.");
+        T current = seed;
+        while (true) {
+            final Option<T> next = Objects.requireNonNull(step.apply(current), "`step` result cannot be null.");
+            if (next.isNone()) {
+                return new Some<>(current);
+            }
+            current = next.unwrap();
+        }
+    }
+
+    /**
+     * Applies {@code step} from {@code seed} until {@code done} accepts the current value, in constant
+     * stack space. Stops early with {@code None} as soon as {@code step} returns {@code None}, like
+     * a failing {@code andThen} would.
+     * <pre>{@code
+     * // resolves an alias chain, None if an alias is dangling.
+     * final Option<String> target = Option.tailRec(alias, aliases::lookup, name -> !aliases.isAlias(name));
+     * }</pre>
+     * Nothing is allocated per step besides what {@code step} returns.
+     * @param seed The first value.
+     * @param step Computes the next value from the current one.
+     * @param done Tells whether the current value is the final one.
+     * @param <T> The value type.
+     * @return {@code Some} holding the first value accepted by {@code done}, {@code None} if {@code step}
+     * returned {@code None} before.
+     * @throws NullPointerException If either {@code seed}, {@code step}, {@code done} or a {@code step} result
+     * is null.
+     */
+    static <T> Option<T> tailRec(T seed, Function<T, Option<T>> step, Predicate<T> done) {
+        Objects.requireNonNull(seed, "`seed` cannot be null.");
+        Objects.requireNonNull(step, "`step` cannot be null.");
+        Objects.requireNonNull(done, "`done` cannot be null.");
+        T current = seed;
+        while (!done.test(current)) {
+            final Option<T> next = Objects.requireNonNull(step.apply(current), "`step` result cannot be null.");
+            if (next.isNone()) {
+                return None.none();
+            }
+            current = next.unwrap();
+        }
+        return new Some<>(current);
+    }
+
     /**
      * @return {@code true} if the option is a {@code Some} object, {@code false} otherwise.
      */
@@ -307,4 +420,20 @@ public interface Option<T> {
      * @return {@link Some} object if there was a contained value, otherwise {@link None}.
      */
     Option<T> take(AtomicReference<Option<T>> option);
+
+    /**
+     * @return A {@link Optional} holding the contained value if the option is {@code Some},
+     * {@link Optional#empty()} otherwise.
+     */
+    default Optional<T> toOptional() {
+        return isSome() ? Optional.of(unwrap()) : Optional.empty();
+    }
+
+    /**
+     * @return The contained value if the option is {@code Some}, {@code null} otherwise.
+     * Meant for boundaries with APIs expecting nullable references only.
+     */
+    default T toNullable() {
+        return isSome() ? unwrap() : null;
+    }
 }
@@ -0,0 +1,183 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link Map} lookups answering {@link Option}s, in a single hash probe.
+ * <pre>{@code
+ * final Option<Session> session = OptionMaps.get(sessions, token); // instead of containsKey + get
+ * OptionMaps.ifSome(counters, name, Counter::increment); // no Some at all
+ * }</pre>
+ * Every miss answers the shared {@link None#none()}. A key mapped to {@code null} is treated as missing.
+ * @since 19/10/26
+ */
+public final class OptionMaps {
+
+    private OptionMaps() {
+
+    }
+
+    /**
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param <V> The value type.
+     * @return The value mapped to {@code key}, {@code None} if none is.
+     * @throws NullPointerException If {@code map} is null.
+     */
+    public static <V> Option<V> get(Map<?, V> map, Object key) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        final V value = map.get(key);
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * Passes the value mapped to {@code key}, if any, to {@code action}, without wrapping it.
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param action Receives the value.
+     * @param <V> The value type.
+     * @return {@code true} if a value was found, {@code false} otherwise.
+     * @throws NullPointerException If {@code map} or {@code action} is null.
+     */
+    public static <V> boolean ifSome(Map<?, V> map, Object key, Consumer<? super V> action) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(action, "`action` cannot be null.");
+        final V value = map.get(key);
+        if (value == null) {
+            return false;
+        }
+        action.accept(value);
+        return true;
+    }
+
+    /**
+     * @param map The map to remove from.
+     * @param key The key to remove.
+     * @param <V> The value type.
+     * @return The value that was mapped to {@code key}, {@code None} if none was.
+     * @throws NullPointerException If {@code map} is null.
+     */
+    public static <V> Option<V> remove(Map<?, V> map, Object key) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        final V value = map.remove(key);
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * Removes the mapping of {@code key}, and passes its value, if any, to {@code action}, without wrapping it.
+     * @param map The map to remove from.
+     * @param key The key to remove.
+     * @param action Receives the removed value.
+     * @param <V> The value type.
+     * @return {@code true} if a value was removed, {@code false} otherwise.
+     * @throws NullPointerException If {@code map} or {@code action} is null.
+     */
+    public static <V> boolean ifRemoved(Map<?, V> map, Object key, Consumer<? super V> action) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(action, "`action` cannot be null.");
+        final V value = map.remove(key);
+        if (value == null) {
+            return false;
+        }
+        action.accept(value);
+        return true;
+    }
+
+    /**
+     * Like {@link Map#computeIfAbsent(Object, Function)}, with a function that may have nothing to insert.
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param function Computes the value to insert if {@code key} isn't mapped; nothing is inserted on {@code None}.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The value mapped to {@code key} after the call, {@code None} if none is.
+     * @throws NullPointerException If {@code map}, {@code function} or a {@code function} result is null.
+     */
+    public static <K, V> Option<V> computeIfAbsentOption(Map<K, V> map, K key, Function<? super K, Option<V>> function) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        final V value = map.computeIfAbsent(key, k -> toNullable(function.apply(k)));
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * Like {@link #computeIfAbsentOption(Map, Object, Function)}, with a lock-free fast path when {@code key}
+     * is already mapped: {@code ConcurrentHashMap.computeIfAbsent} may lock its bin even on a hit.
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param function Computes the value to insert if {@code key} isn't mapped; nothing is inserted on {@code None}.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The value mapped to {@code key} after the call, {@code None} if none is.
+     * @throws NullPointerException If {@code map}, {@code function} or a {@code function} result is null.
+     */
+    public static <K, V> Option<V> computeIfAbsentOption(ConcurrentMap<K, V> map, K key, Function<? super K, Option<V>> function) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        final V present = map.get(key);
+        if (present != null) {
+            return new Some<>(present);
+        }
+        final V value = map.computeIfAbsent(key, k -> toNullable(function.apply(k)));
+        return value != null ? new Some<>(value) : None.none();
+    }
+
+    /**
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param function Computes the value inserted if {@code key} isn't mapped.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The value mapped to {@code key}, the {@code function} result once inserted otherwise.
+     * @throws NullPointerException If {@code map}, {@code function} or the {@code function} result is null.
+     */
+    public static <K, V> V getOrInsertWith(Map<K, V> map, K key, Supplier<? extends V> function) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        return map.computeIfAbsent(key, k -> Objects.requireNonNull(function.get(), "`function` result cannot be null."));
+    }
+
+    /**
+     * Like {@link #getOrInsertWith(Map, Object, Supplier)}, with a lock-free fast path when {@code key} is
+     * already mapped.
+     * @param map The map to look up.
+     * @param key The key to look up.
+     * @param function Computes the value inserted if {@code key} isn't mapped.
+     * @param <K> The key type.
+     * @param <V> The value type.
+     * @return The value mapped to {@code key}, the {@code function} result once inserted otherwise.
+     * @throws NullPointerException If {@code map}, {@code function} or the {@code function} result is null.
+     */
+    public static <K, V> V getOrInsertWith(ConcurrentMap<K, V> map, K key, Supplier<? extends V> function) {
+        Objects.requireNonNull(map, "`map` cannot be null.");
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        final V present = map.get(key);
+        if (present != null) {
+            return present;
+        }
+        return map.computeIfAbsent(key, k -> Objects.requireNonNull(function.get(), "`function` result cannot be null."));
+    }
+
+    private static <V> V toNullable(Option<V> option) {
+        return Objects.requireNonNull(option, "`function` result cannot be null.").toNullable();
+    }
+}
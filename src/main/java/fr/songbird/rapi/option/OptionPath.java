@@ -0,0 +1,302 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Describes, once, how to navigate to a nested optional field, and compiles it into a single accessor.
+ * <pre>{@code
+ * final Function<Order, Option<String>> city = OptionPath.<Order>root()
+ *     .get(Order::attributes) // Map<String, Object>
+ *     .<List<Object>>key("addresses")
+ *     .<Map<String, Object>>index(0)
+ *     .<String>key("city")
+ *     .compile();
+ * for (final Order order : orders) {
+ *     city.apply(order).mapOr(...); // None as soon as a step finds nothing
+ * }
+ * }</pre>
+ * Where a chain of {@code andThen} calls allocates an option per level, a compiled path walks the levels with
+ * plain references and allocates, at most, the final {@code Some}. A step finds nothing when its input is null
+ * or doesn't fit the step (a {@link #key(Object)} step on something else than a {@link Map}, an out of bounds
+ * {@link #index(int)}, ...), when a getter returns null, or when an {@link #getOption(Function)} getter returns
+ * {@code None}.
+ * <p>
+ * {@code OptionPath} is immutable: every step method returns a new path.
+ * @param <R> The root type.
+ * @param <T> The type at the end of the path.
+ * @since 19/10/26
+ */
+public final class OptionPath<R, T> {
+
+    private static final int KEY = 0;
+    private static final int INDEX = 1;
+    private static final int GET = 2;
+    private static final int GET_OPTION = 3;
+
+    private static final OptionPath<?, ?> ROOT = new OptionPath<>(new int[0], new Object[0]);
+
+    private final int[] kinds;
+    private final Object[] arguments;
+
+    private OptionPath(int[] kinds, Object[] arguments) {
+        this.kinds = kinds;
+        this.arguments = arguments;
+    }
+
+    /**
+     * @param <R> The root type.
+     * @return The empty path, leading to the root itself.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> OptionPath<R, R> root() {
+        return (OptionPath<R, R>) ROOT;
+    }
+
+    /**
+     * @param key The map key to look up.
+     * @param <U> The mapped value type.
+     * @return A new path, continuing to the value mapped to {@code key} by the current {@link Map}.
+     * @throws NullPointerException If {@code key} is null.
+     */
+    public <U> OptionPath<R, U> key(Object key) {
+        Objects.requireNonNull(key, "`key` cannot be null.");
+        return append(KEY, key);
+    }
+
+    /**
+     * @param index The element index.
+     * @param <U> The element type.
+     * @return A new path, continuing to the element at {@code index} of the current {@link List} or array.
+     * @throws IllegalArgumentException If {@code index} is negative.
+     */
+    public <U> OptionPath<R, U> index(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("`index` cannot be negative: " + index);
+        }
+        return append(INDEX, index);
+    }
+
+    /**
+     * @param getter Reads the next value, typically a getter method reference.
+     * @param <U> The next value type.
+     * @return A new path, continuing to the {@code getter} result.
+     * @throws NullPointerException If {@code getter} is null.
+     */
+    public <U> OptionPath<R, U> get(Function<? super T, ? extends U> getter) {
+        Objects.requireNonNull(getter, "`getter` cannot be null.");
+        return append(GET, getter);
+    }
+
+    /**
+     * @param getter Reads the next value, as an option.
+     * @param <U> The next value type.
+     * @return A new path, continuing to the value contained by the {@code getter} result.
+     * @throws NullPointerException If {@code getter} is null.
+     */
+    public <U> OptionPath<R, U> getOption(Function<? super T, ? extends Option<U>> getter) {
+        Objects.requireNonNull(getter, "`getter` cannot be null.");
+        return append(GET_OPTION, getter);
+    }
+
+    /**
+     * Walks this path once; prefer {@link #compile()} to walk it repeatedly.
+     * @param root The value to start from.
+     * @return The value at the end of the path, {@code None} if a step finds nothing.
+     */
+    public Option<T> extract(R root) {
+        return Compiled.walk(kinds, arguments, root);
+    }
+
+    /**
+     * @return An accessor walking this path from its argument, with a loop over the steps.
+     */
+    public Function<R, Option<T>> compile() {
+        return new Compiled<>(kinds, arguments);
+    }
+
+    /**
+     * Composes the steps into a single {@link MethodHandle}, every step being guarded by a null check
+     * ({@link MethodHandles#guardWithTest(MethodHandle, MethodHandle, MethodHandle)}).
+     * <p>
+     * The handle is held by the returned accessor rather than being a constant, so don't expect the JIT to inline
+     * the whole path: measure it against {@link #compile()} before preferring it.
+     * @return An accessor walking this path from its argument, as a method handle chain.
+     */
+    @SuppressWarnings("unchecked")
+    public Function<R, Option<T>> compileWithMethodHandles() {
+        MethodHandle path = Handles.WRAP;
+        for (int step = kinds.length - 1; step >= 0; step--) {
+            final MethodHandle next = MethodHandles.guardWithTest(Handles.IS_NULL, Handles.NONE, path);
+            path = MethodHandles.filterReturnValue(Handles.step(kinds[step], arguments[step]), next);
+        }
+        final MethodHandle accessor = MethodHandles.guardWithTest(Handles.IS_NULL, Handles.NONE, path);
+        return root -> {
+            try {
+                return (Option<T>) accessor.invokeExact((Object) root);
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    private <U> OptionPath<R, U> append(int kind, Object argument) {
+        final int[] newKinds = Arrays.copyOf(kinds, kinds.length + 1);
+        final Object[] newArguments = Arrays.copyOf(arguments, arguments.length + 1);
+        newKinds[kinds.length] = kind;
+        newArguments[arguments.length] = argument;
+        return new OptionPath<>(newKinds, newArguments);
+    }
+
+    /**
+     * @return The value mapped to {@code key} by {@code current}, null if {@code current} isn't a {@code Map}.
+     */
+    private static Object atKey(Object key, Object current) {
+        return current instanceof Map ? ((Map<?, ?>) current).get(key) : null;
+    }
+
+    /**
+     * @return The element at {@code index} of {@code current}, null if it's out of bounds or {@code current}
+     * isn't a {@code List} nor an array.
+     */
+    private static Object atIndex(int index, Object current) {
+        if (current instanceof List) {
+            final List<?> list = (List<?>) current;
+            return index < list.size() ? list.get(index) : null;
+        }
+        if (current instanceof Object[]) {
+            final Object[] array = (Object[]) current;
+            return index < array.length ? array[index] : null;
+        }
+        return null;
+    }
+
+    private static Object applyGetter(Function<Object, Object> getter, Object current) {
+        return getter.apply(current);
+    }
+
+    private static Object applyOptionGetter(Function<Object, Option<?>> getter, Object current) {
+        return Objects.requireNonNull(getter.apply(current), "`getter` result cannot be null.").toNullable();
+    }
+
+    private static Option<?> wrap(Object value) {
+        return CanonicalSomes.of(value);
+    }
+
+    /**
+     * @return A lookup with private access to the step helpers above; one created by a nested class only gets it
+     * on Java 11+.
+     */
+    private static MethodHandles.Lookup lookup() {
+        return MethodHandles.lookup();
+    }
+
+    /**
+     * A path compiled into a loop over its steps.
+     */
+    private static final class Compiled<R, T> implements Function<R, Option<T>> {
+
+        private final int[] kinds;
+        private final Object[] arguments;
+
+        private Compiled(int[] kinds, Object[] arguments) {
+            this.kinds = kinds;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Option<T> apply(R root) {
+            return walk(kinds, arguments, root);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Option<T> walk(int[] kinds, Object[] arguments, Object root) {
+            Object current = root;
+            for (int step = 0; step < kinds.length && current != null; step++) {
+                final Object argument = arguments[step];
+                switch (kinds[step]) {
+                    case KEY:
+                        current = atKey(argument, current);
+                        break;
+                    case INDEX:
+                        current = atIndex((Integer) argument, current);
+                        break;
+                    case GET:
+                        current = applyGetter((Function<Object, Object>) argument, current);
+                        break;
+                    default: // GET_OPTION
+                        current = applyOptionGetter((Function<Object, Option<?>>) argument, current);
+                        break;
+                }
+            }
+            return current != null ? (Option<T>) CanonicalSomes.of(current) : None.none();
+        }
+    }
+
+    /**
+     * The method handles the steps are composed from, each typed {@code (Object)Object}.
+     */
+    private static final class Handles {
+
+        static final MethodHandle IS_NULL;
+        static final MethodHandle NONE;
+        static final MethodHandle WRAP;
+        private static final MethodHandle KEY;
+        private static final MethodHandle INDEX;
+        private static final MethodHandle GET;
+        private static final MethodHandle GET_OPTION;
+
+        static {
+            final MethodHandles.Lookup lookup = OptionPath.lookup();
+            try {
+                IS_NULL = lookup.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+                NONE = MethodHandles.dropArguments(MethodHandles.constant(Option.class, None.none()), 0, Object.class);
+                WRAP = lookup.findStatic(OptionPath.class, "wrap", MethodType.methodType(Option.class, Object.class));
+                KEY = lookup.findStatic(OptionPath.class, "atKey", MethodType.methodType(Object.class, Object.class, Object.class));
+                INDEX = lookup.findStatic(OptionPath.class, "atIndex", MethodType.methodType(Object.class, int.class, Object.class));
+                GET = lookup.findStatic(OptionPath.class, "applyGetter", MethodType.methodType(Object.class, Function.class, Object.class));
+                GET_OPTION = lookup.findStatic(OptionPath.class, "applyOptionGetter", MethodType.methodType(Object.class, Function.class, Object.class));
+            }
+            catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        static MethodHandle step(int kind, Object argument) {
+            switch (kind) {
+                case OptionPath.KEY:
+                    return MethodHandles.insertArguments(KEY, 0, argument);
+                case OptionPath.INDEX:
+                    return MethodHandles.insertArguments(INDEX, 0, argument);
+                case OptionPath.GET:
+                    return MethodHandles.insertArguments(GET, 0, argument);
+                default: // GET_OPTION
+                    return MethodHandles.insertArguments(GET_OPTION, 0, argument);
+            }
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * {@link Option} factories and bulk helpers.
+ * <pre>{@code
+ * final List<Option<String>> names = Options.ofNullables(Arrays.asList("Leon", null, "August"));
+ * // [Some("Leon"), None, Some("August")]
+ * final List<String> raw = Options.toNullables(names); // ["Leon", null, "August"]
+ * }</pre>
+ * The {@code parse*} factories never throw on invalid input: unlike a {@code try}/{@code catch} around
+ * {@link Integer#parseInt(String)}, no exception (and its stack trace) is built, and the shared {@code None}
+ * instance is returned, so a failure doesn't allocate at all. They read a {@link CharSequence} range, so a field
+ * can be parsed straight from a line buffer without extracting a {@code String} first:
+ * <pre>{@code
+ * final CharSequence line = "42;oops;-7";
+ * Options.parseInt(line, 0, 2); // Some(42)
+ * Options.parseInt(line, 3, 4); // None
+ * Options.parseInt(line, 8, 2); // Some(-7)
+ * }</pre>
+ * @since 19/10/26
+ */
+public final class Options {
+
+    /**
+     * The constants of every enum class looked up so far, {@link Class#getEnumConstants()} copies them on each call.
+     */
+    private static final ClassValue<Enum<?>[]> ENUM_CONSTANTS = new ClassValue<Enum<?>[]>() {
+        @Override
+        protected Enum<?>[] computeValue(Class<?> type) {
+            return (Enum<?>[]) type.getEnumConstants();
+        }
+    };
+
+    private Options() {
+
+    }
+
+    /**
+     * Wraps every nullable reference of {@code values}, see {@link Option#ofNullable(Object)}.
+     * @param values The nullable references.
+     * @param <T> The contained value type.
+     * @return A new array holding one option per element of {@code values}, null elements being mapped to the
+     * shared {@code None} instance.
+     * @throws NullPointerException If {@code values} is null.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Option<T>[] ofNullables(T[] values) {
+        Objects.requireNonNull(values, "`values` cannot be null.");
+        final Option<T>[] options = (Option<T>[]) new Option<?>[values.length];
+        for (int i = 0; i < values.length; i++) {
+            options[i] = Option.ofNullable(values[i]);
+        }
+        return options;
+    }
+
+    /**
+     * Wraps every nullable reference of {@code values}, see {@link Option#ofNullable(Object)}.
+     * @param values The nullable references.
+     * @param <T> The contained value type.
+     * @return A new list holding one option per element of {@code values}, null elements being mapped to the
+     * shared {@code None} instance.
+     * @throws NullPointerException If {@code values} is null.
+     */
+    public static <T> List<Option<T>> ofNullables(List<T> values) {
+        Objects.requireNonNull(values, "`values` cannot be null.");
+        final List<Option<T>> options = new ArrayList<>(values.size());
+        for (final T value : values) {
+            options.add(Option.ofNullable(value));
+        }
+        return options;
+    }
+
+    /**
+     * Unwraps every option of {@code options} into {@code target}, see {@link Option#toNullable()}.
+     * @param options The options to unwrap.
+     * @param target The array receiving the contained values, {@code null} standing for {@code None}.
+     * @param <T> The contained value type.
+     * @return {@code target}.
+     * @throws NullPointerException If either {@code options}, {@code target} or an element of {@code options}
+     * is null.
+     * @throws IllegalArgumentException If {@code target} is shorter than {@code options}.
+     */
+    public static <T> T[] toNullables(Option<T>[] options, T[] target) {
+        Objects.requireNonNull(options, "`options` cannot be null.");
+        Objects.requireNonNull(target, "`target` cannot be null.");
+        if (target.length < options.length) {
+            throw new IllegalArgumentException("`target` is too short: " + target.length + " < " + options.length);
+        }
+        for (int i = 0; i < options.length; i++) {
+            target[i] = options[i].toNullable();
+        }
+        return target;
+    }
+
+    /**
+     * Unwraps every option of {@code options}, see {@link Option#toNullable()}.
+     * @param options The options to unwrap.
+     * @param <T> The contained value type.
+     * @return A new list holding the contained values, {@code null} standing for {@code None}.
+     * @throws NullPointerException If either {@code options} or one of its elements is null.
+     */
+    public static <T> List<T> toNullables(List<? extends Option<T>> options) {
+        Objects.requireNonNull(options, "`options` cannot be null.");
+        final List<T> values = new ArrayList<>(options.size());
+        for (final Option<T> option : options) {
+            values.add(option.toNullable());
+        }
+        return values;
+    }
+
+    /**
+     * Parses a signed decimal {@code int}, see {@link #parseInt(CharSequence, int, int)}.
+     * @param chars The characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if {@code chars} isn't a valid {@code int}.
+     * @throws NullPointerException If {@code chars} is null.
+     */
+    public static Option<Integer> parseInt(CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseInt(chars, 0, chars.length());
+    }
+
+    /**
+     * Parses a signed decimal {@code int} from {@code chars[offset, offset + length)}.
+     * <p>
+     * Accepts the same input as {@link Integer#parseInt(String)}: an optional {@code '+'} or {@code '-'} sign
+     * followed by at least one ASCII digit, within the {@code int} range.
+     * @param chars The characters to parse.
+     * @param offset The index of the first character to parse.
+     * @param length The number of characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if the range isn't a valid {@code int}.
+     * @throws NullPointerException If {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     */
+    public static Option<Integer> parseInt(CharSequence chars, int offset, int length) {
+        checkRange(chars, offset, length);
+        if (length == 0) {
+            return None.none();
+        }
+        final int end = offset + length;
+        int index = offset;
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        final char first = chars.charAt(index);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                return None.none();
+            }
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            }
+            index++;
+        }
+        // Accumulates negatively, like `Integer.parseInt`, so that `Integer.MIN_VALUE` doesn't overflow.
+        final int multiplicationLimit = limit / 10;
+        int result = 0;
+        while (index < end) {
+            final int digit = chars.charAt(index++) - '0';
+            if (digit < 0 || digit > 9 || result < multiplicationLimit) {
+                return None.none();
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return None.none();
+            }
+            result -= digit;
+        }
+        return CanonicalSomes.ofInt(negative ? result : -result);
+    }
+
+    /**
+     * Parses a signed decimal {@code long}, see {@link #parseLong(CharSequence, int, int)}.
+     * @param chars The characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if {@code chars} isn't a valid {@code long}.
+     * @throws NullPointerException If {@code chars} is null.
+     */
+    public static Option<Long> parseLong(CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseLong(chars, 0, chars.length());
+    }
+
+    /**
+     * Parses a signed decimal {@code long} from {@code chars[offset, offset + length)}.
+     * <p>
+     * Accepts the same input as {@link Long#parseLong(String)}: an optional {@code '+'} or {@code '-'} sign
+     * followed by at least one ASCII digit, within the {@code long} range.
+     * @param chars The characters to parse.
+     * @param offset The index of the first character to parse.
+     * @param length The number of characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if the range isn't a valid {@code long}.
+     * @throws NullPointerException If {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     */
+    public static Option<Long> parseLong(CharSequence chars, int offset, int length) {
+        checkRange(chars, offset, length);
+        if (length == 0) {
+            return None.none();
+        }
+        final int end = offset + length;
+        int index = offset;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        final char first = chars.charAt(index);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                return None.none();
+            }
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            index++;
+        }
+        final long multiplicationLimit = limit / 10;
+        long result = 0;
+        while (index < end) {
+            final int digit = chars.charAt(index++) - '0';
+            if (digit < 0 || digit > 9 || result < multiplicationLimit) {
+                return None.none();
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return None.none();
+            }
+            result -= digit;
+        }
+        return CanonicalSomes.ofLong(negative ? result : -result);
+    }
+
+    /**
+     * Parses a decimal {@code double}, see {@link #parseDouble(CharSequence, int, int)}.
+     * @param chars The characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if {@code chars} isn't a valid {@code double}.
+     * @throws NullPointerException If {@code chars} is null.
+     */
+    public static Option<Double> parseDouble(CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseDouble(chars, 0, chars.length());
+    }
+
+    /**
+     * Parses a decimal {@code double} from {@code chars[offset, offset + length)}.
+     * <p>
+     * Accepts an optional sign followed by either {@code NaN}, {@code Infinity} or digits with an optional
+     * fraction and exponent ({@code 12}, {@code -1.5}, {@code .5}, {@code 3.}, {@code 6.02e23}). This is stricter
+     * than {@link Double#parseDouble(String)}: surrounding whitespace, hexadecimal notation and the
+     * {@code f}/{@code d} suffixes are rejected.
+     * <p>
+     * The syntax is checked without allocating, then valid input is handed to {@link Double#parseDouble(String)}
+     * for a correctly rounded conversion.
+     * @param chars The characters to parse.
+     * @param offset The index of the first character to parse.
+     * @param length The number of characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if the range isn't a valid {@code double}.
+     * @throws NullPointerException If {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     */
+    public static Option<Double> parseDouble(CharSequence chars, int offset, int length) {
+        checkRange(chars, offset, length);
+        final int end = offset + length;
+        int index = offset;
+        if (index < end && (chars.charAt(index) == '-' || chars.charAt(index) == '+')) {
+            index++;
+        }
+        if (regionEquals(chars, index, end - index, "NaN", false)
+                || regionEquals(chars, index, end - index, "Infinity", false)) {
+            return new Some<>(Double.parseDouble(chars.subSequence(offset, end).toString()));
+        }
+        int digits = 0;
+        while (index < end && isDigit(chars.charAt(index))) {
+            index++;
+            digits++;
+        }
+        if (index < end && chars.charAt(index) == '.') {
+            index++;
+            while (index < end && isDigit(chars.charAt(index))) {
+                index++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return None.none();
+        }
+        if (index < end && (chars.charAt(index) == 'e' || chars.charAt(index) == 'E')) {
+            index++;
+            if (index < end && (chars.charAt(index) == '-' || chars.charAt(index) == '+')) {
+                index++;
+            }
+            final int exponentStart = index;
+            while (index < end && isDigit(chars.charAt(index))) {
+                index++;
+            }
+            if (index == exponentStart) {
+                return None.none();
+            }
+        }
+        if (index != end) {
+            return None.none();
+        }
+        return new Some<>(Double.parseDouble(chars.subSequence(offset, end).toString()));
+    }
+
+    /**
+     * Parses a {@code boolean}, see {@link #parseBoolean(CharSequence, int, int)}.
+     * @param chars The characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if {@code chars} isn't a valid {@code boolean}.
+     * @throws NullPointerException If {@code chars} is null.
+     */
+    public static Option<Boolean> parseBoolean(CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseBoolean(chars, 0, chars.length());
+    }
+
+    /**
+     * Parses {@code true} or {@code false}, ignoring case, from {@code chars[offset, offset + length)}.
+     * <p>
+     * Unlike {@link Boolean#parseBoolean(String)}, anything else is {@code None} rather than {@code false}.
+     * @param chars The characters to parse.
+     * @param offset The index of the first character to parse.
+     * @param length The number of characters to parse.
+     * @return A shared {@code Some} instance, or the shared {@code None} instance if the range isn't a valid
+     * {@code boolean}.
+     * @throws NullPointerException If {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     */
+    public static Option<Boolean> parseBoolean(CharSequence chars, int offset, int length) {
+        checkRange(chars, offset, length);
+        if (regionEquals(chars, offset, length, "true", true)) {
+            return CanonicalSomes.TRUE;
+        }
+        if (regionEquals(chars, offset, length, "false", true)) {
+            return CanonicalSomes.FALSE;
+        }
+        return None.none();
+    }
+
+    /**
+     * Parses a {@link UUID}, see {@link #parseUUID(CharSequence, int, int)}.
+     * @param chars The characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if {@code chars} isn't a valid {@code UUID}.
+     * @throws NullPointerException If {@code chars} is null.
+     */
+    public static Option<UUID> parseUUID(CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseUUID(chars, 0, chars.length());
+    }
+
+    /**
+     * Parses a {@link UUID} in its canonical form ({@code 8-4-4-4-12} hexadecimal digits, as produced by
+     * {@link UUID#toString()}) from {@code chars[offset, offset + length)}.
+     * @param chars The characters to parse.
+     * @param offset The index of the first character to parse.
+     * @param length The number of characters to parse.
+     * @return The parsed value, or the shared {@code None} instance if the range isn't a canonical {@code UUID}.
+     * @throws NullPointerException If {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     */
+    public static Option<UUID> parseUUID(CharSequence chars, int offset, int length) {
+        checkRange(chars, offset, length);
+        if (length != 36) {
+            return None.none();
+        }
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            final char c = chars.charAt(offset + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return None.none();
+                }
+                continue;
+            }
+            final int digit = Character.digit(c, 16);
+            if (digit < 0 || c > 'f') {
+                return None.none();
+            }
+            if (digits < 16) {
+                mostSignificantBits = (mostSignificantBits << 4) | digit;
+            } else {
+                leastSignificantBits = (leastSignificantBits << 4) | digit;
+            }
+            digits++;
+        }
+        return new Some<>(new UUID(mostSignificantBits, leastSignificantBits));
+    }
+
+    /**
+     * Looks up an enum constant by name, see {@link #parseEnum(Class, CharSequence, int, int)}.
+     * @param type The enum class.
+     * @param chars The constant name.
+     * @param <E> The enum type.
+     * @return The constant, or the shared {@code None} instance if {@code type} has no constant named {@code chars}.
+     * @throws NullPointerException If either {@code type} or {@code chars} is null.
+     */
+    public static <E extends Enum<E>> Option<E> parseEnum(Class<E> type, CharSequence chars) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        return parseEnum(type, chars, 0, chars.length());
+    }
+
+    /**
+     * Looks up the enum constant named {@code chars[offset, offset + length)}, case-sensitively like
+     * {@link Enum#valueOf(Class, String)}.
+     * @param type The enum class.
+     * @param chars The characters holding the constant name.
+     * @param offset The index of the first character of the name.
+     * @param length The number of characters of the name.
+     * @param <E> The enum type.
+     * @return The constant, or the shared {@code None} instance if {@code type} has no constant named so.
+     * @throws NullPointerException If either {@code type} or {@code chars} is null.
+     * @throws IndexOutOfBoundsException If the range is out of {@code chars} bounds.
+     * @throws IllegalArgumentException If {@code type} isn't an enum class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> Option<E> parseEnum(Class<E> type, CharSequence chars, int offset, int length) {
+        Objects.requireNonNull(type, "`type` cannot be null.");
+        checkRange(chars, offset, length);
+        final Enum<?>[] constants = ENUM_CONSTANTS.get(type);
+        if (constants == null) {
+            throw new IllegalArgumentException(type.getName() + " is not an enum class.");
+        }
+        for (final Enum<?> constant : constants) {
+            if (regionEquals(chars, offset, length, constant.name(), false)) {
+                return CanonicalSomes.of((E) constant);
+            }
+        }
+        return None.none();
+    }
+
+    private static void checkRange(CharSequence chars, int offset, int length) {
+        Objects.requireNonNull(chars, "`chars` cannot be null.");
+        if (offset < 0 || length < 0 || offset > chars.length() - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length
+                    + ", chars length: " + chars.length());
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean regionEquals(CharSequence chars, int offset, int length, String expected, boolean ignoreCase) {
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = chars.charAt(offset + i);
+            final char e = expected.charAt(i);
+            if (c != e && !(ignoreCase && Character.toLowerCase(c) == Character.toLowerCase(e))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,369 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Parallel bulk operations over large arrays of options, split across a {@link ForkJoinPool}.
+ * <pre>{@code
+ * final Integer[] ages = new Integer[rows.length];
+ * final Option<Integer[]> parsed = ParallelOptions.traverse(rows, row -> Options.parseInt(row.age()), ages);
+ *
+ * final int[] present = new int[rows.length];
+ * final int[] absent = new int[rows.length];
+ * final int presentCount = ParallelOptions.partition(optionalEmails, present, absent);
+ * }</pre>
+ * The input is cut into chunks; a task keeps splitting its range of chunks in halves while its pool has idle
+ * workers to steal them ({@link RecursiveAction#getSurplusQueuedTaskCount()}), and processes the remaining
+ * chunks itself otherwise. Results are written into the caller's arrays, nothing is collected.
+ * Inputs smaller than {@value #SEQUENTIAL_THRESHOLD} elements are processed by the calling thread.
+ * <p>
+ * Without a pool argument, the operations run on {@link ForkJoinPool#commonPool()}.
+ * @since 19/10/26
+ */
+public final class ParallelOptions {
+
+    /**
+     * Below this size, an operation runs sequentially.
+     */
+    static final int SEQUENTIAL_THRESHOLD = 8_192;
+
+    /**
+     * The minimal chunk size.
+     */
+    private static final int MIN_CHUNK_SIZE = 4_096;
+
+    /**
+     * How many chunks each worker gets, on average.
+     */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    /**
+     * A task stops splitting once its pool holds this many queued tasks nobody stole.
+     */
+    private static final int MAX_SURPLUS = 3;
+
+    private ParallelOptions() {
+
+    }
+
+    /**
+     * Applies {@code function} to every element, stopping at the first {@code None} result.
+     * @param input The elements.
+     * @param function Maps an element to an option.
+     * @param output Receives the contained values, at the index of their element.
+     * @param <T> The element type.
+     * @param <R> The contained value type.
+     * @return {@code output} wrapped in {@code Some} if every result is present, {@code None} otherwise,
+     * in which case {@code output} is only partially written.
+     * @throws NullPointerException If an argument, or a {@code function} result, is null.
+     * @throws IllegalArgumentException If {@code output} is shorter than {@code input}.
+     */
+    public static <T, R> Option<R[]> traverse(T[] input, Function<? super T, Option<R>> function, R[] output) {
+        return traverse(input, function, output, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies {@code function} to every element, stopping at the first {@code None} result.
+     * @param input The elements.
+     * @param function Maps an element to an option.
+     * @param output Receives the contained values, at the index of their element.
+     * @param pool Runs the operation.
+     * @param <T> The element type.
+     * @param <R> The contained value type.
+     * @return {@code output} wrapped in {@code Some} if every result is present, {@code None} otherwise,
+     * in which case {@code output} is only partially written.
+     * @throws NullPointerException If an argument, or a {@code function} result, is null.
+     * @throws IllegalArgumentException If {@code output} is shorter than {@code input}.
+     */
+    public static <T, R> Option<R[]> traverse(T[] input, Function<? super T, Option<R>> function, R[] output, ForkJoinPool pool) {
+        Objects.requireNonNull(input, "`input` cannot be null.");
+        return traverse(input.length, i -> input[i], function, output, pool);
+    }
+
+    /**
+     * Applies {@code function} to every element, stopping at the first {@code None} result.
+     * @param input The elements, preferably a {@link java.util.RandomAccess} list.
+     * @param function Maps an element to an option.
+     * @param output Receives the contained values, at the index of their element.
+     * @param <T> The element type.
+     * @param <R> The contained value type.
+     * @return {@code output} wrapped in {@code Some} if every result is present, {@code None} otherwise,
+     * in which case {@code output} is only partially written.
+     * @throws NullPointerException If an argument, or a {@code function} result, is null.
+     * @throws IllegalArgumentException If {@code output} is shorter than {@code input}.
+     */
+    public static <T, R> Option<R[]> traverse(List<? extends T> input, Function<? super T, Option<R>> function, R[] output) {
+        return traverse(input, function, output, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies {@code function} to every element, stopping at the first {@code None} result.
+     * @param input The elements, preferably a {@link java.util.RandomAccess} list.
+     * @param function Maps an element to an option.
+     * @param output Receives the contained values, at the index of their element.
+     * @param pool Runs the operation.
+     * @param <T> The element type.
+     * @param <R> The contained value type.
+     * @return {@code output} wrapped in {@code Some} if every result is present, {@code None} otherwise,
+     * in which case {@code output} is only partially written.
+     * @throws NullPointerException If an argument, or a {@code function} result, is null.
+     * @throws IllegalArgumentException If {@code output} is shorter than {@code input}.
+     */
+    public static <T, R> Option<R[]> traverse(List<? extends T> input, Function<? super T, Option<R>> function, R[] output, ForkJoinPool pool) {
+        Objects.requireNonNull(input, "`input` cannot be null.");
+        return traverse(input.size(), input::get, function, output, pool);
+    }
+
+    private static <T, R> Option<R[]> traverse(int length, IntFunction<? extends T> input, Function<? super T, Option<R>> function,
+                                               R[] output, ForkJoinPool pool) {
+        Objects.requireNonNull(function, "`function` cannot be null.");
+        Objects.requireNonNull(output, "`output` cannot be null.");
+        Objects.requireNonNull(pool, "`pool` cannot be null.");
+        if (output.length < length) {
+            throw new IllegalArgumentException("`output` is shorter than `input`: " + output.length + " < " + length);
+        }
+        final Chunks chunks = new Chunks(length, pool);
+        chunks.run(pool, (chunk, cancellation) -> {
+            for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++) {
+                if (cancellation.cancelled) {
+                    return;
+                }
+                final Option<R> result = Objects.requireNonNull(function.apply(input.apply(i)), "`function` result cannot be null.");
+                if (result.isNone()) {
+                    cancellation.cancelled = true;
+                    return;
+                }
+                output[i] = result.unwrap();
+            }
+        });
+        return chunks.cancellation.cancelled ? None.none() : new Some<>(output);
+    }
+
+    /**
+     * @param options The options to count.
+     * @return How many elements of {@code options} are {@code Some}.
+     * @throws NullPointerException If {@code options} or one of its elements is null.
+     */
+    public static int countSome(Option<?>[] options) {
+        return countSome(options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param options The options to count.
+     * @param pool Runs the operation.
+     * @return How many elements of {@code options} are {@code Some}.
+     * @throws NullPointerException If {@code options}, one of its elements or {@code pool} is null.
+     */
+    public static int countSome(Option<?>[] options, ForkJoinPool pool) {
+        Objects.requireNonNull(options, "`options` cannot be null.");
+        Objects.requireNonNull(pool, "`pool` cannot be null.");
+        final Chunks chunks = new Chunks(options.length, pool);
+        int count = 0;
+        for (final int chunkCount : countSomePerChunk(options, chunks, pool)) {
+            count += chunkCount;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the indices of the {@code Some} elements into {@code present}, and the indices of the {@code None}
+     * elements into {@code absent}, both in ascending order.
+     * <p>
+     * Works in two phases: the {@code Some} elements of every chunk are counted, then every chunk writes its
+     * indices from the offsets given by the counts of the preceding chunks.
+     * @param options The options to partition.
+     * @param present Receives the indices of the {@code Some} elements, from index 0.
+     * @param absent Receives the indices of the {@code None} elements, from index 0.
+     * @return How many elements are {@code Some}; {@code options.length} minus this count are {@code None}.
+     * @throws NullPointerException If an argument or an element of {@code options} is null.
+     * @throws IllegalArgumentException If {@code present} or {@code absent} is too short; nothing is written then.
+     */
+    public static int partition(Option<?>[] options, int[] present, int[] absent) {
+        return partition(options, present, absent, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Writes the indices of the {@code Some} elements into {@code present}, and the indices of the {@code None}
+     * elements into {@code absent}, both in ascending order.
+     * <p>
+     * Works in two phases: the {@code Some} elements of every chunk are counted, then every chunk writes its
+     * indices from the offsets given by the counts of the preceding chunks.
+     * @param options The options to partition.
+     * @param present Receives the indices of the {@code Some} elements, from index 0.
+     * @param absent Receives the indices of the {@code None} elements, from index 0.
+     * @param pool Runs the operation.
+     * @return How many elements are {@code Some}; {@code options.length} minus this count are {@code None}.
+     * @throws NullPointerException If an argument or an element of {@code options} is null.
+     * @throws IllegalArgumentException If {@code present} or {@code absent} is too short; nothing is written then.
+     */
+    public static int partition(Option<?>[] options, int[] present, int[] absent, ForkJoinPool pool) {
+        Objects.requireNonNull(options, "`options` cannot be null.");
+        Objects.requireNonNull(present, "`present` cannot be null.");
+        Objects.requireNonNull(absent, "`absent` cannot be null.");
+        Objects.requireNonNull(pool, "`pool` cannot be null.");
+        final Chunks chunks = new Chunks(options.length, pool);
+        final int[] offsets = countSomePerChunk(options, chunks, pool);
+        int presentCount = 0;
+        for (int chunk = 0; chunk < offsets.length; chunk++) {
+            final int chunkCount = offsets[chunk];
+            offsets[chunk] = presentCount; // exclusive prefix sum
+            presentCount += chunkCount;
+        }
+        if (present.length < presentCount) {
+            throw new IllegalArgumentException("`present` is too short: " + present.length + " < " + presentCount);
+        }
+        if (absent.length < options.length - presentCount) {
+            throw new IllegalArgumentException("`absent` is too short: " + absent.length + " < " + (options.length - presentCount));
+        }
+        chunks.run(pool, (chunk, cancellation) -> {
+            final int start = chunks.start(chunk);
+            int presentIndex = offsets[chunk];
+            int absentIndex = start - presentIndex;
+            for (int i = start, end = chunks.end(chunk); i < end; i++) {
+                if (options[i].isSome()) {
+                    present[presentIndex++] = i;
+                }
+                else {
+                    absent[absentIndex++] = i;
+                }
+            }
+        });
+        return presentCount;
+    }
+
+    private static int[] countSomePerChunk(Option<?>[] options, Chunks chunks, ForkJoinPool pool) {
+        final int[] counts = new int[chunks.count];
+        chunks.run(pool, (chunk, cancellation) -> {
+            int count = 0;
+            for (int i = chunks.start(chunk), end = chunks.end(chunk); i < end; i++) {
+                if (options[i].isSome()) {
+                    count++;
+                }
+            }
+            counts[chunk] = count;
+        });
+        return counts;
+    }
+
+    /**
+     * Processes one chunk.
+     */
+    @FunctionalInterface
+    private interface ChunkAction {
+
+        void run(int chunk, Cancellation cancellation);
+    }
+
+    /**
+     * Shared by the tasks of one operation.
+     */
+    private static final class Cancellation {
+
+        volatile boolean cancelled;
+    }
+
+    /**
+     * Cuts {@code length} elements into chunks of equal size, the last one excepted.
+     */
+    private static final class Chunks {
+
+        private final int length;
+        private final int size;
+        private final int count;
+        private final Cancellation cancellation = new Cancellation();
+
+        private Chunks(int length, ForkJoinPool pool) {
+            this.length = length;
+            if (length < SEQUENTIAL_THRESHOLD) {
+                this.size = Math.max(length, 1);
+            }
+            else {
+                final long target = (long) pool.getParallelism() * CHUNKS_PER_WORKER;
+                this.size = (int) Math.max(MIN_CHUNK_SIZE, (length + target - 1) / target);
+            }
+            this.count = (int) (((long) length + size - 1) / size);
+        }
+
+        int start(int chunk) {
+            return chunk * size;
+        }
+
+        int end(int chunk) {
+            return chunk == count - 1 ? length : (chunk + 1) * size;
+        }
+
+        void run(ForkJoinPool pool, ChunkAction action) {
+            if (count <= 1) {
+                for (int chunk = 0; chunk < count; chunk++) {
+                    action.run(chunk, cancellation);
+                }
+            }
+            else {
+                pool.invoke(new ChunkTask(this, action, 0, count));
+            }
+        }
+    }
+
+    /**
+     * Processes a range of chunks, splitting it while other workers are idle. Never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveAction {
+
+        private final Chunks chunks;
+        private final ChunkAction action;
+        private final int from;
+        private int to;
+        private ChunkTask next;
+
+        private ChunkTask(Chunks chunks, ChunkAction action, int from, int to) {
+            this.chunks = chunks;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            ChunkTask forked = null;
+            while (to - from > 1 && getSurplusQueuedTaskCount() <= MAX_SURPLUS && !chunks.cancellation.cancelled) {
+                final int middle = (from + to) >>> 1;
+                final ChunkTask right = new ChunkTask(chunks, action, middle, to);
+                right.next = forked;
+                forked = right;
+                right.fork();
+                to = middle;
+            }
+            for (int chunk = from; chunk < to && !chunks.cancellation.cancelled; chunk++) {
+                action.run(chunk, chunks.cancellation);
+            }
+            for (; forked != null; forked = forked.next) {
+                if (forked.tryUnfork()) {
+                    forked.compute();
+                }
+                else {
+                    forked.join();
+                }
+            }
+        }
+    }
+}
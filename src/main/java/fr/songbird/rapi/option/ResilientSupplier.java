@@ -0,0 +1,351 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.option;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a flaky {@code Supplier<Option<T>>} with bounded retries, a per-attempt timeout and hedged attempts.
+ * <pre>{@code
+ * final Supplier<Option<Profile>> remote = ResilientSupplier.of(() -> profileService.find(id))
+ *     .withRetries(3, 10, 200, TimeUnit.MILLISECONDS) // up to 3 attempts, jittered exponential backoff
+ *     .withTimeout(50, TimeUnit.MILLISECONDS) // per attempt
+ *     .withHedging(); // starts a second call when the first one is slower than the p95 latency
+ * final Option<Profile> profile = localCache.find(id).orElse(remote);
+ * }</pre>
+ * An attempt fails if the supplier throws or exceeds the timeout; a {@code None} result is an answer, not a
+ * failure, and isn't retried. Once every attempt failed, {@link #get()} returns {@code None}.
+ * <p>
+ * Timed and hedged attempts run on an executor: virtual threads when the JDK provides them (21+), a shared
+ * pool of daemon threads otherwise, unless {@link #withExecutor(ExecutorService)} is given.
+ * A timed-out attempt is cancelled with an interrupt.
+ * <p>
+ * {@code ResilientSupplier} is immutable: every {@code with*} method returns a new instance.
+ * @since 19/10/26
+ */
+public final class ResilientSupplier<T> implements Supplier<Option<T>> {
+
+    /**
+     * No hedging.
+     */
+    private static final long NO_HEDGING = -1;
+
+    /**
+     * Hedging after the p95 latency.
+     */
+    private static final long ADAPTIVE_HEDGING = 0;
+
+    private final Supplier<Option<T>> delegate;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long timeoutNanos;
+    private final long hedgeDelayNanos;
+    private final ExecutorService executor;
+    private final LatencyTracker latencies;
+
+    private ResilientSupplier(Supplier<Option<T>> delegate, int maxAttempts, long baseBackoffNanos, long maxBackoffNanos,
+                              long timeoutNanos, long hedgeDelayNanos, ExecutorService executor, LatencyTracker latencies) {
+        this.delegate = delegate;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoffNanos;
+        this.maxBackoffNanos = maxBackoffNanos;
+        this.timeoutNanos = timeoutNanos;
+        this.hedgeDelayNanos = hedgeDelayNanos;
+        this.executor = executor;
+        this.latencies = latencies;
+    }
+
+    /**
+     * @param delegate The supplier to protect.
+     * @param <T> The contained value type.
+     * @return A new {@code ResilientSupplier} making a single attempt, without timeout nor hedging.
+     * @throws NullPointerException If {@code delegate} is null.
+     */
+    public static <T> ResilientSupplier<T> of(Supplier<Option<T>> delegate) {
+        Objects.requireNonNull(delegate, "`delegate` cannot be null.");
+        return new ResilientSupplier<>(delegate, 1, 0, 0, 0, NO_HEDGING, null, new LatencyTracker());
+    }
+
+    /**
+     * @param maxAttempts The maximum number of attempts, the first one included.
+     * @param baseBackoff The backoff bound after the first failed attempt, doubled after each failure.
+     * @param maxBackoff The maximum backoff bound.
+     * @param unit The backoff unit.
+     * @return A new {@code ResilientSupplier} sleeping a random time between zero and the current bound
+     * ("full jitter") before each retry.
+     * @throws IllegalArgumentException If {@code maxAttempts} isn't positive or a backoff is negative.
+     * @throws NullPointerException If {@code unit} is null.
+     */
+    public ResilientSupplier<T> withRetries(int maxAttempts, long baseBackoff, long maxBackoff, TimeUnit unit) {
+        Objects.requireNonNull(unit, "`unit` cannot be null.");
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("`maxAttempts` must be positive: " + maxAttempts);
+        }
+        if (baseBackoff < 0 || maxBackoff < 0) {
+            throw new IllegalArgumentException("backoffs cannot be negative.");
+        }
+        return new ResilientSupplier<>(delegate, maxAttempts, unit.toNanos(baseBackoff), unit.toNanos(maxBackoff),
+                timeoutNanos, hedgeDelayNanos, executor, latencies);
+    }
+
+    /**
+     * @param timeout The maximum duration of an attempt, hedged call included.
+     * @param unit The timeout unit.
+     * @return A new {@code ResilientSupplier} failing the attempts exceeding {@code timeout}.
+     * @throws IllegalArgumentException If {@code timeout} isn't positive.
+     * @throws NullPointerException If {@code unit} is null.
+     */
+    public ResilientSupplier<T> withTimeout(long timeout, TimeUnit unit) {
+        Objects.requireNonNull(unit, "`unit` cannot be null.");
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("`timeout` must be positive: " + timeout);
+        }
+        return new ResilientSupplier<>(delegate, maxAttempts, baseBackoffNanos, maxBackoffNanos, unit.toNanos(timeout),
+                hedgeDelayNanos, executor, latencies);
+    }
+
+    /**
+     * Starts a second call when the first one is slower than the p95 latency of the last successful calls.
+     * No call is hedged until {@value LatencyTracker#MIN_SAMPLES} latencies have been observed.
+     * @return A new {@code ResilientSupplier} hedging slow attempts.
+     */
+    public ResilientSupplier<T> withHedging() {
+        return new ResilientSupplier<>(delegate, maxAttempts, baseBackoffNanos, maxBackoffNanos, timeoutNanos,
+                ADAPTIVE_HEDGING, executor, latencies);
+    }
+
+    /**
+     * Starts a second call when the first one is slower than {@code delay}.
+     * @param delay How long to wait for the first call before hedging it.
+     * @param unit The delay unit.
+     * @return A new {@code ResilientSupplier} hedging slow attempts.
+     * @throws IllegalArgumentException If {@code delay} isn't positive.
+     * @throws NullPointerException If {@code unit} is null.
+     */
+    public ResilientSupplier<T> withHedging(long delay, TimeUnit unit) {
+        Objects.requireNonNull(unit, "`unit` cannot be null.");
+        if (delay <= 0) {
+            throw new IllegalArgumentException("`delay` must be positive: " + delay);
+        }
+        return new ResilientSupplier<>(delegate, maxAttempts, baseBackoffNanos, maxBackoffNanos, timeoutNanos,
+                unit.toNanos(delay), executor, latencies);
+    }
+
+    /**
+     * @param executor Runs the timed and hedged calls.
+     * @return A new {@code ResilientSupplier} running its calls on {@code executor}.
+     * @throws NullPointerException If {@code executor} is null.
+     */
+    public ResilientSupplier<T> withExecutor(ExecutorService executor) {
+        Objects.requireNonNull(executor, "`executor` cannot be null.");
+        return new ResilientSupplier<>(delegate, maxAttempts, baseBackoffNanos, maxBackoffNanos, timeoutNanos,
+                hedgeDelayNanos, executor, latencies);
+    }
+
+    /**
+     * Calls the delegate until an attempt succeeds or every attempt failed.
+     * @return The first successful result, {@code None} if every attempt failed or the calling thread was
+     * interrupted (its interrupt status is restored).
+     */
+    @Override
+    public Option<T> get() {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            final Option<T> result;
+            try {
+                result = timeoutNanos == 0 && hedgeDelayNanos == NO_HEDGING ? callDirectly() : callOnExecutor();
+                if (attempt < maxAttempts && result == null) {
+                    backoff(attempt);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return None.none();
+            }
+            if (result != null) {
+                return result;
+            }
+        }
+        return None.none();
+    }
+
+    /**
+     * @return The delegate result, {@code null} if it failed.
+     */
+    private Option<T> callDirectly() {
+        try {
+            return call();
+        }
+        catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The first successful result of the (possibly hedged) calls, {@code null} if they failed or timed out.
+     */
+    private Option<T> callOnExecutor() throws InterruptedException {
+        final CompletionService<Option<T>> completion = new ExecutorCompletionService<>(executor());
+        final long deadline = timeoutNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+        final Future<Option<T>> first = completion.submit(this::call);
+        Future<Option<T>> second = null;
+        int running = 1;
+        try {
+            final long hedgeDelay = hedgeDelayNanos == ADAPTIVE_HEDGING ? latencies.p95() : hedgeDelayNanos;
+            if (hedgeDelay > 0) {
+                final Future<Option<T>> done = completion.poll(Math.min(hedgeDelay, remaining(deadline)), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    running--;
+                    final Option<T> result = resultOf(done);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                if (remaining(deadline) > 0) {
+                    second = completion.submit(this::call);
+                    running++;
+                }
+            }
+            while (running > 0) {
+                final Future<Option<T>> done = deadline == Long.MAX_VALUE
+                        ? completion.take()
+                        : completion.poll(remaining(deadline), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    return null; // timed out
+                }
+                running--;
+                final Option<T> result = resultOf(done);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return null;
+        }
+        finally {
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    private Option<T> call() {
+        final long start = System.nanoTime();
+        final Option<T> result = Objects.requireNonNull(delegate.get(), "`delegate` result cannot be null.");
+        latencies.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private Option<T> resultOf(Future<Option<T>> done) throws InterruptedException {
+        try {
+            return done.get();
+        }
+        catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void backoff(int failedAttempts) throws InterruptedException {
+        if (baseBackoffNanos == 0) {
+            return;
+        }
+        final int shift = failedAttempts - 1;
+        final long bound = shift < Long.SIZE - 1 && baseBackoffNanos <= maxBackoffNanos >> shift
+                ? baseBackoffNanos << shift
+                : maxBackoffNanos;
+        if (bound > 0) {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+
+    private ExecutorService executor() {
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    private static long remaining(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * The default executor, created on first use.
+     */
+    private static final class DefaultExecutor {
+
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            try {
+                // JDK 21+, looked up reflectively since RAPI targets Java 8.
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            }
+            catch (ReflectiveOperationException | RuntimeException e) {
+                return Executors.newCachedThreadPool(runnable -> {
+                    final Thread thread = new Thread(runnable, "rapi-resilient-supplier");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
+    /**
+     * The latencies of the last {@value #CAPACITY} successful calls.
+     */
+    static final class LatencyTracker {
+
+        static final int MIN_SAMPLES = 20;
+        private static final int CAPACITY = 128;
+        private static final int REFRESH_INTERVAL = 16;
+
+        private final long[] samples = new long[CAPACITY];
+
+        /**
+         * How many samples are held, capped at {@link #CAPACITY} so that a long-lived tracker never overflows.
+         */
+        private int count;
+        private int next;
+        private volatile long p95;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % CAPACITY;
+            if (count < CAPACITY) {
+                count++;
+            }
+            if (count == MIN_SAMPLES || count > MIN_SAMPLES && next % REFRESH_INTERVAL == 0) {
+                final long[] sorted = Arrays.copyOf(samples, Math.min(count, CAPACITY));
+                Arrays.sort(sorted);
+                p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            }
+        }
+
+        /**
+         * @return The p95 latency in nanoseconds, 0 until {@link #MIN_SAMPLES} latencies have been recorded.
+         */
+        long p95() {
+            return p95;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package fr.songbird.rapi.option;
 import fr.songbird.rapi.ref.ReferenceHandler;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -54,8 +55,7 @@ public class Some<T> implements Option<T> {
      */
     public Some(Option<T> option) {
         if (option.isSome()) {
-            final Some<T> nonEmptyContainer = (Some<T>)option;
-            this.value = nonEmptyContainer.value;
+            this.value = option.unwrap();
         }
         else {
             throw new IllegalArgumentException("`option` is none. It does not contain value to copy.");
@@ -183,7 +183,7 @@ public class Some<T> implements Option<T> {
     public Option<T> take(ReferenceHandler<Option<T>> option) {
         Objects.requireNonNull(option, "`option` cannot be null.");
         final T containedValue = option.get().unwrap();
-        option.set(new None<>());
+        option.set(None.none());
         return new Some<>(containedValue);
     }
 
@@ -191,10 +191,20 @@ public class Some<T> implements Option<T> {
     public Option<T> take(AtomicReference<Option<T>> option) {
         Objects.requireNonNull(option, "`option` cannot be null.");
         final T containedValue = option.get().unwrap();
-        option.set(new None<>());
+        option.set(None.none());
         return new Some<>(containedValue);
     }
 
+    @Override
+    public Optional<T> toOptional() {
+        return Optional.of(value);
+    }
+
+    @Override
+    public T toNullable() {
+        return value;
+    }
+
     /**
      * Compares the contained values only.
      * <pre>{@code
@@ -209,8 +219,16 @@ public class Some<T> implements Option<T> {
     public boolean equals(Object anObject) {
         if (anObject instanceof Option) {
             final Option<T> option = (Option<T>) anObject;
-            return option.isSome() && Objects.equals(this.value, ((Some) option).value);
+            return option.isSome() && Objects.equals(this.value, option.unwrap());
         }
         return false;
     }
+
+    /**
+     * @return The hash code of the contained value, so that equal options have equal hash codes.
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
 }
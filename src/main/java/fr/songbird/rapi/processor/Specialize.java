@@ -0,0 +1,42 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a specialized {@link fr.songbird.rapi.option.Option} implementation for the annotated type.
+ * <pre>{@code
+ * @Specialize
+ * public final class Money { ... }
+ *
+ * // generated by SpecializedOptionProcessor, in the same package:
+ * final MoneyOption price = MoneyOption.some(new Money(12, EUR));
+ * final Option<Money> generic = price.toOption();
+ * }</pre>
+ * The generated {@code <Type>Option} class is final and holds the value itself, instead of going through
+ * {@code Some}/{@code None} and their interface dispatch; for a nested type, it's named after the enclosing
+ * types too ({@code Outer_InnerOption}). See {@link SpecializedOptionProcessor}.
+ * @since 19/10/26
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Specialize {
+}
@@ -0,0 +1,144 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Type>Option} class for every type annotated with {@link Specialize}.
+ * <p>
+ * The generated class lives in the package of the annotated type, is final, implements
+ * {@link fr.songbird.rapi.option.Option} with the same contract as {@code Some}/{@code None}, and converts
+ * to and from the generic form ({@code toOption()}, {@code from(Option)}). Its call sites are monomorphic,
+ * so the JIT can inline them without type profiling. The class of a nested type is named after its enclosing
+ * types too, {@code Outer_InnerOption}, so that nested types sharing a simple name don't collide.
+ * <p>
+ * The processor is opt-in: it ships, with its service registration, in the separate {@code processor} jar
+ * ({@code RAPI-<version>-processor.jar}), to add to the annotation processor path of the compilations using
+ * {@link Specialize}. The library jar itself registers no processor.
+ * <p>
+ * <strong>Note</strong>: The value fields aren't flattened into the generated class, which holds a reference to
+ * the value: flattening would require rebuilding the value on every {@code unwrap}.
+ * @since 19/10/26
+ */
+public class SpecializedOptionProcessor extends AbstractProcessor {
+
+    private static final String TEMPLATE = "SpecializedOption.template";
+
+    /**
+     * The first line of the template, left out for the types of the unnamed package.
+     */
+    private static final String PACKAGE_DECLARATION = "package ${package};\n\n";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(Specialize.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(Specialize.class)) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.ENUM) {
+                error(element, "@Specialize only applies to classes.");
+                continue;
+            }
+            final TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                error(type, "@Specialize doesn't support generic types.");
+                continue;
+            }
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                error(type, "@Specialize doesn't support private types.");
+                continue;
+            }
+            generate(type);
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.getQualifiedName().toString();
+        final String name = generatedName(type);
+        final String template = template();
+        final String source = (packageElement.isUnnamed()
+                ? template.replace(PACKAGE_DECLARATION, "")
+                : template.replace("${package}", packageName))
+                .replace("${type}", type.getQualifiedName().toString())
+                .replace("${name}", name);
+        final String qualifiedName = packageElement.isUnnamed() ? name : packageName + "." + name;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source);
+        }
+        catch (IOException e) {
+            error(type, "Cannot generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code <Type>Option}, prefixed by the enclosing types of {@code type}: {@code Outer_InnerOption}.
+     */
+    private static String generatedName(TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName()).append("Option");
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return name.toString();
+    }
+
+    private String template() {
+        try (InputStream in = SpecializedOptionProcessor.class.getResourceAsStream(TEMPLATE)) {
+            if (in == null) {
+                throw new IllegalStateException(TEMPLATE + " is missing from the class path.");
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,60 @@
+package fr.songbird.rapi.ref;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ReferenceHandler} padded to fill a whole cache line.
+ * <p>
+ * Small handlers allocated together (e.g. one per worker thread) end up on the same cache line, so every
+ * {@code set} made by a thread invalidates the line read by its neighbours (false sharing). A padded
+ * handler is followed by 56 bytes of unused fields: two padded handlers allocated one after the other
+ * never share a cache line.
+ * <pre>{@code
+ * final ReferenceHandler<Option<Integer>>[] perThread = PaddedReferenceHandler.newArray(threads, None::none);
+ * // worker `i`
+ * perThread[i].get().getOrInsert(perThread[i], 8);
+ * }</pre>
+ * <strong>Note</strong>: {@code @Contended} isn't used since it requires {@code -XX:-RestrictContended}
+ * outside of the JDK.
+ * @since 19/10/26
+ */
+public class PaddedReferenceHandler<T> extends ReferenceHandler<T> {
+
+    /**
+     * Padding, fields of a subclass are laid out after the fields of its superclass.
+     */
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    /**
+     * Initialize a {@code PaddedReferenceHandler} object with {@code `value`}.
+     * @param value The object which must be borrowed.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public PaddedReferenceHandler(T value) {
+        super(value);
+    }
+
+    /**
+     * Allocates {@code length} padded handlers in a row, so that none of them shares a cache line with another.
+     * @param length The number of handlers.
+     * @param initialValue Computes the initial value of every handler.
+     * @param <T> The contained value type.
+     * @return A new array of {@code length} padded handlers.
+     * @throws NullPointerException If either {@code initialValue} or its result is null.
+     * @throws IllegalArgumentException If {@code length} is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReferenceHandler<T>[] newArray(int length, Supplier<? extends T> initialValue) {
+        Objects.requireNonNull(initialValue, "`initialValue` cannot be null.");
+        if (length < 0) {
+            throw new IllegalArgumentException("`length` cannot be negative: " + length);
+        }
+        final ReferenceHandler<T>[] handlers = (ReferenceHandler<T>[]) new ReferenceHandler<?>[length];
+        for (int i = 0; i < length; i++) {
+            handlers[i] = new PaddedReferenceHandler<>(initialValue.get());
+        }
+        return handlers;
+    }
+}
@@ -0,0 +1,210 @@
+package fr.songbird.rapi.ref;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@link ReferenceHandler} holding its option value through a {@link SoftReference} or a {@link WeakReference},
+ * so that the garbage collector may reclaim it. Once reclaimed, the handler holds {@code None}.
+ * <p>
+ * Combined with {@code getOrInsertWith}, the value is transparently recomputed on the next access:
+ * <pre>{@code
+ * final ReclaimableReferenceHandler<Image> cache = ReclaimableReferenceHandler.soft();
+ * // decoded on the first call, then again only if the GC reclaimed it in between.
+ * final Image image = cache.get().getOrInsertWith(cache, () -> decode(path));
+ * }</pre>
+ * Reclaimed values are detached from their handler through one {@link ReferenceQueue} shared by every handler.
+ * There is no cleaner thread: the queue is drained on each {@code get}/{@code set}, or explicitly with
+ * {@link #expungeStaleReferences()}.
+ * <p>
+ * <strong>Note</strong>: Each read of a present value returns a new {@link Some}, holding the value strongly.
+ * @since 19/10/26
+ */
+public class ReclaimableReferenceHandler<T> extends ReferenceHandler<Option<T>> {
+
+    /**
+     * How strongly the value is held.
+     */
+    public enum Strength {
+        /**
+         * Through a {@link SoftReference}: reclaimed when the heap runs low.
+         */
+        SOFT,
+        /**
+         * Through a {@link WeakReference}: reclaimed as soon as nothing else holds the value.
+         */
+        WEAK
+    }
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ReclaimableReferenceHandler, Reference> REFERENCE =
+            AtomicReferenceFieldUpdater.newUpdater(ReclaimableReferenceHandler.class, Reference.class, "reference");
+
+    private final Strength strength;
+
+    /**
+     * The reference to the contained value, {@code null} if the handler holds {@code None}.
+     * Volatile since the shared queue may be drained by the owner of another handler.
+     */
+    private volatile Reference<T> reference;
+
+    /**
+     * Initialize an empty {@code ReclaimableReferenceHandler}.
+     * @param strength How strongly the value is held.
+     * @throws NullPointerException If {@code strength} is null.
+     */
+    public ReclaimableReferenceHandler(Strength strength) {
+        this(strength, None.none());
+    }
+
+    /**
+     * Initialize a {@code ReclaimableReferenceHandler} object with {@code `value`}.
+     * @param strength How strongly the value is held.
+     * @param value The initial option.
+     * @throws NullPointerException If either {@code strength} or {@code value} is null.
+     */
+    public ReclaimableReferenceHandler(Strength strength, Option<T> value) {
+        super(None.none());
+        this.strength = Objects.requireNonNull(strength, "`strength` cannot be null.");
+        bind(value);
+    }
+
+    /**
+     * @param <T> The contained value type.
+     * @return A new empty handler holding its values through {@link SoftReference}s.
+     */
+    public static <T> ReclaimableReferenceHandler<T> soft() {
+        return new ReclaimableReferenceHandler<>(Strength.SOFT);
+    }
+
+    /**
+     * @param <T> The contained value type.
+     * @return A new empty handler holding its values through {@link WeakReference}s.
+     */
+    public static <T> ReclaimableReferenceHandler<T> weak() {
+        return new ReclaimableReferenceHandler<>(Strength.WEAK);
+    }
+
+    /**
+     * @return How strongly the value is held.
+     */
+    public Strength strength() {
+        return strength;
+    }
+
+    /**
+     * Binds {@code newValue} as contained value. A {@code Some} value is held softly or weakly, see
+     * {@link #strength()}.
+     * @param newValue The new value to bind.
+     * @throws NullPointerException If {@code newValue} is null.
+     */
+    @Override
+    public void set(Option<T> newValue) {
+        bind(newValue);
+    }
+
+    /**
+     * Implements {@link #set(Option)}, kept private so that the constructor doesn't call an overridable method.
+     */
+    private void bind(Option<T> newValue) {
+        Objects.requireNonNull(newValue, "`newValue` cannot be null.");
+        expungeStaleReferences();
+        final Reference<T> oldReference = reference;
+        if (newValue.isSome()) {
+            final T value = newValue.unwrap();
+            reference = strength == Strength.SOFT
+                    ? new SoftValue<>(value, this)
+                    : new WeakValue<>(value, this);
+        }
+        else {
+            reference = null;
+        }
+        if (oldReference != null) {
+            oldReference.clear(); // no need to enqueue it anymore
+        }
+    }
+
+    /**
+     * Returns the contained value.
+     * @return {@code Some} holding the value if it is still reachable, {@code None} if the handler is empty or
+     * the value has been reclaimed.
+     */
+    @Override
+    public Option<T> get() {
+        expungeStaleReferences();
+        final Reference<T> current = reference;
+        if (current == null) {
+            return None.none();
+        }
+        final T value = current.get();
+        return value == null ? None.none() : new Some<>(value);
+    }
+
+    /**
+     * Drains the shared queue, detaching every reclaimed value from its handler.
+     * <p>
+     * Called on each {@code get}/{@code set}; call it explicitly to release the handlers of reclaimed values
+     * sooner when handlers are seldom accessed.
+     */
+    public static void expungeStaleReferences() {
+        Reference<?> stale;
+        while ((stale = QUEUE.poll()) != null) {
+            ((Reclaimable) stale).detach();
+        }
+    }
+
+    private interface Reclaimable {
+
+        /**
+         * Removes this reference from its handler, if still there. A reference can be enqueued before its
+         * constructor assigned its handler: it's skipped then, which is enough since it stays in its handler
+         * as a cleared reference, so {@code get} already returns {@code None}, and the next {@code set}
+         * replaces it.
+         */
+        void detach();
+    }
+
+    private static final class SoftValue<T> extends SoftReference<T> implements Reclaimable {
+
+        private final ReclaimableReferenceHandler<T> handler;
+
+        private SoftValue(T value, ReclaimableReferenceHandler<T> handler) {
+            super(value, QUEUE);
+            this.handler = handler;
+        }
+
+        @Override
+        public void detach() {
+            if (handler != null) {
+                REFERENCE.compareAndSet(handler, this, null);
+            }
+        }
+    }
+
+    private static final class WeakValue<T> extends WeakReference<T> implements Reclaimable {
+
+        private final ReclaimableReferenceHandler<T> handler;
+
+        private WeakValue(T value, ReclaimableReferenceHandler<T> handler) {
+            super(value, QUEUE);
+            this.handler = handler;
+        }
+
+        @Override
+        public void detach() {
+            if (handler != null) {
+                REFERENCE.compareAndSet(handler, this, null);
+            }
+        }
+    }
+}
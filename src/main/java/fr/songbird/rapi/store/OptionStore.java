@@ -0,0 +1,374 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.store;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A fixed-capacity table of options, indexed by {@code long}, stored off-heap.
+ * <pre>{@code
+ * try (OptionStore<Long> offsets = OptionStore.create(path, 500_000_000L, ValueEncoder.LONG)) {
+ *     offsets.set(42, 1_024L);
+ *     offsets.get(42); // Some(1024)
+ *     offsets.get(43); // None
+ * }
+ * try (OptionStore<Long> offsets = OptionStore.open(path, ValueEncoder.LONG)) { // after a restart
+ *     offsets.forEach((offset, index) -> index(index, offset));
+ * }
+ * }</pre>
+ * A store holds a presence bitmap, one bit per slot, followed by {@code capacity} value slots of
+ * {@link ValueEncoder#width()} bytes. Both live in direct {@link ByteBuffer}s ({@link #allocate(long, ValueEncoder)})
+ * or in a memory-mapped file ({@link #create(Path, long, ValueEncoder)}, {@link #open(Path, ValueEncoder)}), cut
+ * into segments of at most 1 GiB. Empty slots cost one bit of the bitmap plus their (untouched) slot bytes,
+ * and nothing of the Java heap.
+ * <p>
+ * A file starts with a header recording the store format, capacity, slot width and encoder {@linkplain ValueEncoder#id() id},
+ * so that {@link #open(Path, ValueEncoder)} maps an existing table back without reading it.
+ * <p>
+ * <strong>Note</strong>: {@code OptionStore} is not thread-safe. Its buffers are only released once they're
+ * garbage collected, {@link #close()} doesn't unmap them.
+ * @param <T> The contained value type.
+ * @since 19/10/26
+ */
+public final class OptionStore<T> implements Closeable {
+
+    /**
+     * "RAPI" in ASCII.
+     */
+    private static final int MAGIC = 0x52415049;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    /**
+     * How many bitmap words a segment holds.
+     */
+    private static final int WORDS_PER_SEGMENT = SEGMENT_SIZE / Long.BYTES;
+
+    private final ValueEncoder<T> encoder;
+    private final long capacity;
+    private final int width;
+    private final int slotsPerSegment;
+    private final ByteBuffer[] bitmap;
+    private final ByteBuffer[] slots;
+    private final FileChannel channel;
+
+    private OptionStore(ValueEncoder<T> encoder, long capacity, ByteBuffer[] bitmap, ByteBuffer[] slots, FileChannel channel) {
+        this.encoder = encoder;
+        this.capacity = capacity;
+        this.width = encoder.width();
+        this.slotsPerSegment = SEGMENT_SIZE / width;
+        this.bitmap = bitmap;
+        this.slots = slots;
+        this.channel = channel;
+    }
+
+    /**
+     * @param capacity The number of slots.
+     * @param encoder Encodes the values.
+     * @param <T> The contained value type.
+     * @return A new store backed by direct buffers, every slot being empty.
+     * @throws IllegalArgumentException If {@code capacity} is negative or too large, or the {@code encoder} width isn't positive.
+     * @throws NullPointerException If {@code encoder} is null.
+     */
+    public static <T> OptionStore<T> allocate(long capacity, ValueEncoder<T> encoder) {
+        final int width = checkedWidth(encoder, capacity);
+        final ByteBuffer[] bitmap = new ByteBuffer[segmentCount(bitmapSize(capacity), SEGMENT_SIZE)];
+        for (int segment = 0; segment < bitmap.length; segment++) {
+            bitmap[segment] = ByteBuffer.allocateDirect(segmentSize(bitmapSize(capacity), SEGMENT_SIZE, segment));
+        }
+        final long slotsSize = capacity * width;
+        final int slotsSegmentSize = SEGMENT_SIZE / width * width;
+        final ByteBuffer[] slots = new ByteBuffer[segmentCount(slotsSize, slotsSegmentSize)];
+        for (int segment = 0; segment < slots.length; segment++) {
+            slots[segment] = ByteBuffer.allocateDirect(segmentSize(slotsSize, slotsSegmentSize, segment));
+        }
+        return new OptionStore<>(encoder, capacity, bitmap, slots, null);
+    }
+
+    /**
+     * Creates (or truncates) {@code file} and maps a new store into it.
+     * @param file The store file.
+     * @param capacity The number of slots.
+     * @param encoder Encodes the values.
+     * @param <T> The contained value type.
+     * @return A new store backed by {@code file}, every slot being empty.
+     * @throws IOException If {@code file} can't be created or mapped.
+     * @throws IllegalArgumentException If {@code capacity} is negative or too large, or the {@code encoder} width isn't positive.
+     * @throws NullPointerException If {@code file} or {@code encoder} is null.
+     */
+    public static <T> OptionStore<T> create(Path file, long capacity, ValueEncoder<T> encoder) throws IOException {
+        Objects.requireNonNull(file, "`file` cannot be null.");
+        final int width = checkedWidth(encoder, capacity);
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(capacity).putInt(width).putInt(encoder.id().hashCode()).rewind();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return map(channel, capacity, encoder);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the store previously created in {@code file}, its values included.
+     * @param file The store file.
+     * @param encoder Encodes the values; it must have the id and width of the encoder the store was created with.
+     * @param <T> The contained value type.
+     * @return The store backed by {@code file}.
+     * @throws IOException If {@code file} can't be mapped, isn't a store file, is truncated, or was created with
+     * another encoder.
+     * @throws NullPointerException If {@code file} or {@code encoder} is null.
+     */
+    public static <T> OptionStore<T> open(Path file, ValueEncoder<T> encoder) throws IOException {
+        Objects.requireNonNull(file, "`file` cannot be null.");
+        Objects.requireNonNull(encoder, "`encoder` cannot be null.");
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // reads the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException(file + " isn't an OptionStore file.");
+            }
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has an unsupported version: " + version);
+            }
+            final long capacity = header.getLong();
+            final int width = header.getInt();
+            if (header.getInt() != encoder.id().hashCode()) {
+                throw new IOException(file + " was created with another encoder than `" + encoder.id() + "`.");
+            }
+            if (width != encoder.width()) {
+                throw new IOException(file + " has " + width + " bytes slots, `encoder` writes " + encoder.width() + " bytes.");
+            }
+            if (capacity < 0 || capacity > maxCapacity(width)) {
+                throw new IOException(file + " has an invalid capacity: " + capacity);
+            }
+            final long size = HEADER_SIZE + bitmapSize(capacity) + capacity * width;
+            if (channel.size() < size) {
+                throw new IOException(file + " is truncated: " + channel.size() + " bytes, expected " + size + " bytes.");
+            }
+            return map(channel, capacity, encoder);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static <T> OptionStore<T> map(FileChannel channel, long capacity, ValueEncoder<T> encoder) throws IOException {
+        final int width = encoder.width();
+        final long bitmapSize = bitmapSize(capacity);
+        final ByteBuffer[] bitmap = new ByteBuffer[segmentCount(bitmapSize, SEGMENT_SIZE)];
+        for (int segment = 0; segment < bitmap.length; segment++) {
+            bitmap[segment] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + (long) segment * SEGMENT_SIZE,
+                    segmentSize(bitmapSize, SEGMENT_SIZE, segment));
+        }
+        final long slotsStart = HEADER_SIZE + bitmapSize;
+        final long slotsSize = capacity * width;
+        final int slotsSegmentSize = SEGMENT_SIZE / width * width;
+        final ByteBuffer[] slots = new ByteBuffer[segmentCount(slotsSize, slotsSegmentSize)];
+        for (int segment = 0; segment < slots.length; segment++) {
+            slots[segment] = channel.map(FileChannel.MapMode.READ_WRITE, slotsStart + (long) segment * slotsSegmentSize,
+                    segmentSize(slotsSize, slotsSegmentSize, segment));
+        }
+        return new OptionStore<>(encoder, capacity, bitmap, slots, channel);
+    }
+
+    private static int checkedWidth(ValueEncoder<?> encoder, long capacity) {
+        Objects.requireNonNull(encoder, "`encoder` cannot be null.");
+        final int width = encoder.width();
+        if (width <= 0) {
+            throw new IllegalArgumentException("`encoder` width must be positive: " + width);
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("`capacity` cannot be negative: " + capacity);
+        }
+        if (capacity > maxCapacity(width)) {
+            throw new IllegalArgumentException("`capacity` is too large for " + width + " bytes slots: " + capacity);
+        }
+        return width;
+    }
+
+    /**
+     * @return The largest capacity whose header, bitmap and slots sizes add up without overflowing a {@code long}.
+     */
+    private static long maxCapacity(int width) {
+        return (Long.MAX_VALUE - HEADER_SIZE) / (width + 1L);
+    }
+
+    /**
+     * @return The bitmap size in bytes, a whole number of words.
+     */
+    private static long bitmapSize(long capacity) {
+        return (capacity + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    private static int segmentCount(long size, int segmentSize) {
+        return (int) ((size + segmentSize - 1) / segmentSize);
+    }
+
+    private static int segmentSize(long size, int segmentSize, int segment) {
+        return (int) Math.min(segmentSize, size - (long) segment * segmentSize);
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param index The slot index.
+     * @return {@code true} if the slot holds a value, {@code false} otherwise.
+     * @throws IndexOutOfBoundsException If {@code index} isn't within {@code [0, capacity())}.
+     */
+    public boolean isSome(long index) {
+        checkIndex(index);
+        return (word(index >>> 6) & 1L << index) != 0;
+    }
+
+    /**
+     * @param index The slot index.
+     * @return A new {@link Some} containing the slot value, {@code None} if the slot is empty.
+     * @throws IndexOutOfBoundsException If {@code index} isn't within {@code [0, capacity())}.
+     */
+    public Option<T> get(long index) {
+        return isSome(index) ? new Some<>(read(index)) : None.none();
+    }
+
+    /**
+     * @param index The slot index.
+     * @param value The slot value.
+     * @throws IndexOutOfBoundsException If {@code index} isn't within {@code [0, capacity())}.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public void set(long index, T value) {
+        Objects.requireNonNull(value, "`value` cannot be null.");
+        checkIndex(index);
+        encoder.write(slots[(int) (index / slotsPerSegment)], (int) (index % slotsPerSegment) * width, value);
+        final long word = index >>> 6;
+        setWord(word, word(word) | 1L << index);
+    }
+
+    /**
+     * Empties a slot.
+     * @param index The slot index.
+     * @throws IndexOutOfBoundsException If {@code index} isn't within {@code [0, capacity())}.
+     */
+    public void clear(long index) {
+        checkIndex(index);
+        final long word = index >>> 6;
+        setWord(word, word(word) & ~(1L << index));
+    }
+
+    /**
+     * @return How many slots hold a value.
+     */
+    public long count() {
+        long count = 0;
+        for (long word = 0, words = bitmapSize(capacity) / Long.BYTES; word < words; word++) {
+            count += Long.bitCount(word(word));
+        }
+        return count;
+    }
+
+    /**
+     * Passes every value, with its index, to {@code action}, in ascending index order.
+     * Empty slots are skipped 64 at a time, by reading the bitmap one word at a time.
+     * @param action Receives the values and their index.
+     * @throws NullPointerException If {@code action} is null.
+     */
+    public void forEach(ObjLongConsumer<? super T> action) {
+        Objects.requireNonNull(action, "`action` cannot be null.");
+        for (long word = 0, words = bitmapSize(capacity) / Long.BYTES; word < words; word++) {
+            long bits = word(word);
+            while (bits != 0) {
+                final long index = word << 6 | Long.numberOfTrailingZeros(bits);
+                action.accept(read(index), index);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Writes the changes of a file-backed store to its storage device; does nothing for a direct store.
+     */
+    public void force() {
+        if (channel != null) {
+            for (final ByteBuffer segment : bitmap) {
+                ((MappedByteBuffer) segment).force();
+            }
+            for (final ByteBuffer segment : slots) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Forces the changes of a file-backed store, then closes its file.
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            force();
+            channel.close();
+        }
+    }
+
+    private T read(long index) {
+        return encoder.read(slots[(int) (index / slotsPerSegment)], (int) (index % slotsPerSegment) * width);
+    }
+
+    private long word(long word) {
+        return bitmap[(int) (word / WORDS_PER_SEGMENT)].getLong((int) (word % WORDS_PER_SEGMENT) * Long.BYTES);
+    }
+
+    private void setWord(long word, long bits) {
+        bitmap[(int) (word / WORDS_PER_SEGMENT)].putLong((int) (word % WORDS_PER_SEGMENT) * Long.BYTES, bits);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("index " + index + " out of [0, " + capacity + ")");
+        }
+    }
+}
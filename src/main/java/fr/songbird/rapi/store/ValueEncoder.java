@@ -0,0 +1,141 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the values of an {@link OptionStore} into fixed-width slots.
+ * <pre>{@code
+ * final ValueEncoder<Point> points = new ValueEncoder<Point>() {
+ *     public int width() { return 8; }
+ *     public void write(ByteBuffer buffer, int offset, Point value) {
+ *         buffer.putInt(offset, value.x).putInt(offset + 4, value.y);
+ *     }
+ *     public Point read(ByteBuffer buffer, int offset) {
+ *         return new Point(buffer.getInt(offset), buffer.getInt(offset + 4));
+ *     }
+ * };
+ * }</pre>
+ * Implementations only use the absolute {@link ByteBuffer} methods, between {@code offset} and
+ * {@code offset + width()}. The encoders of file stores should also override {@link #id()}.
+ * @param <T> The encoded value type.
+ * @since 19/10/26
+ */
+public interface ValueEncoder<T> {
+
+    /**
+     * Encodes {@code Long} values in 8 bytes.
+     */
+    ValueEncoder<Long> LONG = new ValueEncoder<Long>() {
+        @Override
+        public String id() {
+            return "long";
+        }
+
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Encodes {@code Integer} values in 4 bytes.
+     */
+    ValueEncoder<Integer> INT = new ValueEncoder<Integer>() {
+        @Override
+        public String id() {
+            return "int";
+        }
+
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Encodes {@code Double} values in 8 bytes.
+     */
+    ValueEncoder<Double> DOUBLE = new ValueEncoder<Double>() {
+        @Override
+        public String id() {
+            return "double";
+        }
+
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * Identifies the encoding in the header of the store files, so that a file is only opened with the encoder
+     * that wrote it.
+     * @return A name stable across versions of the program, the encoder class name by default.
+     */
+    default String id() {
+        return getClass().getName();
+    }
+
+    /**
+     * @return The slot width, in bytes. Must be positive and constant.
+     */
+    int width();
+
+    /**
+     * @param buffer The buffer holding the slot.
+     * @param offset The slot offset in {@code buffer}.
+     * @param value The value to encode, never null.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * @param buffer The buffer holding the slot.
+     * @param offset The slot offset in {@code buffer}.
+     * @return The decoded value, never null.
+     */
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,90 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.validated;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable sequence of errors whose concatenation is O(1): a binary tree whose leaves are the errors.
+ * It's flattened into a {@link List} only on demand.
+ * @since 19/10/26
+ */
+abstract class ErrorChain<E> {
+
+    private final int size;
+
+    private ErrorChain(int size) {
+        this.size = size;
+    }
+
+    static <E> ErrorChain<E> of(E error) {
+        return new Leaf<>(error);
+    }
+
+    static <E> ErrorChain<E> concat(ErrorChain<E> left, ErrorChain<E> right) {
+        return new Concat<>(left, right);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Flattens the chain iteratively, so that deep chains don't overflow the stack.
+     * @return A new unmodifiable list holding the errors in order.
+     */
+    List<E> toList() {
+        final List<E> errors = new ArrayList<>(size);
+        final ArrayDeque<ErrorChain<E>> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            final ErrorChain<E> chain = pending.pop();
+            if (chain instanceof Leaf) {
+                errors.add(((Leaf<E>) chain).error);
+            }
+            else {
+                final Concat<E> concat = (Concat<E>) chain;
+                pending.push(concat.right);
+                pending.push(concat.left);
+            }
+        }
+        return Collections.unmodifiableList(errors);
+    }
+
+    private static final class Leaf<E> extends ErrorChain<E> {
+
+        private final E error;
+
+        private Leaf(E error) {
+            super(1);
+            this.error = error;
+        }
+    }
+
+    private static final class Concat<E> extends ErrorChain<E> {
+
+        private final ErrorChain<E> left;
+        private final ErrorChain<E> right;
+
+        private Concat(ErrorChain<E> left, ErrorChain<E> right) {
+            super(left.size() + right.size());
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
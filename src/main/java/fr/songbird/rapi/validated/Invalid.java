@@ -0,0 +1,150 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.validated;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * @since 19/10/26
+ */
+public final class Invalid<E, T> implements Validated<E, T> {
+
+    private final ErrorChain<E> chain;
+
+    /**
+     * The materialized errors, {@code null} until {@link #errors()} is called.
+     */
+    private volatile List<E> errors;
+
+    /**
+     * Initializes a new {@code Invalid} container.
+     * @param error The error.
+     * @throws NullPointerException If {@code error} is null.
+     */
+    public Invalid(E error) {
+        this(ErrorChain.of(Objects.requireNonNull(error, "error cannot be null.")));
+    }
+
+    private Invalid(ErrorChain<E> chain) {
+        this.chain = chain;
+    }
+
+    @Override
+    public boolean isValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isInvalid() {
+        return true;
+    }
+
+    @Override
+    public T unwrap() {
+        throw new RuntimeException("called `" + Validated.class.getName() + ".unwrap()` on an `Invalid` object: "
+                + errors());
+    }
+
+    @Override
+    public T unwrapOr(T defaultValue) {
+        return Objects.requireNonNull(defaultValue, "defaultValue cannot be null.");
+    }
+
+    @Override
+    public List<E> errors() {
+        List<E> materialized = errors;
+        if (materialized == null) {
+            materialized = chain.toList();
+            errors = materialized;
+        }
+        return materialized;
+    }
+
+    @Override
+    public int errorCount() {
+        return chain.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> Validated<E, U> map(Function<T, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return (Validated<E, U>) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> Validated<E, U> andThen(Function<T, Validated<E, U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return (Validated<E, U>) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U, R> Validated<E, R> combine(Validated<E, U> other, BiFunction<T, U, R> combiner) {
+        Objects.requireNonNull(other, "other cannot be null.");
+        Objects.requireNonNull(combiner, "combiner cannot be null.");
+        if (other.isValid()) {
+            return (Validated<E, R>) this;
+        }
+        return new Invalid<>(ErrorChain.concat(chain, chainOf(other)));
+    }
+
+    @Override
+    public <R> R fold(Function<List<E>, R> ifInvalid, Function<T, R> ifValid) {
+        Objects.requireNonNull(ifInvalid, "ifInvalid cannot be null.");
+        Objects.requireNonNull(ifValid, "ifValid cannot be null.");
+        return ifInvalid.apply(errors());
+    }
+
+    @Override
+    public Option<T> toOption() {
+        return None.none();
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        return anObject instanceof Invalid && errors().equals(((Invalid<?, ?>) anObject).errors());
+    }
+
+    @Override
+    public int hashCode() {
+        return errors().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Invalid(" + errors() + ")";
+    }
+
+    private static <E> ErrorChain<E> chainOf(Validated<E, ?> invalid) {
+        if (invalid instanceof Invalid) {
+            return ((Invalid<E, ?>) invalid).chain;
+        }
+        // a foreign implementation: rebuild its errors.
+        ErrorChain<E> chain = null;
+        for (final E error : invalid.errors()) {
+            final ErrorChain<E> leaf = ErrorChain.of(error);
+            chain = chain == null ? leaf : ErrorChain.concat(chain, leaf);
+        }
+        return chain;
+    }
+}
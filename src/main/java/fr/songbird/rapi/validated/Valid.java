@@ -0,0 +1,122 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.validated;
+
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * @since 19/10/26
+ */
+public final class Valid<E, T> implements Validated<E, T> {
+
+    private final T value;
+
+    /**
+     * Initializes a new {@code Valid} container.
+     * @param value The valid value.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    public Valid(T value) {
+        this.value = Objects.requireNonNull(value, "value cannot be null.");
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public boolean isInvalid() {
+        return false;
+    }
+
+    @Override
+    public T unwrap() {
+        return value;
+    }
+
+    @Override
+    public T unwrapOr(T defaultValue) {
+        Objects.requireNonNull(defaultValue, "defaultValue cannot be null.");
+        return value;
+    }
+
+    @Override
+    public List<E> errors() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int errorCount() {
+        return 0;
+    }
+
+    @Override
+    public <U> Validated<E, U> map(Function<T, U> appliedFunction) {
+        Objects.requireNonNull(appliedFunction, "`appliedFunction` cannot be null.");
+        return new Valid<>(appliedFunction.apply(value));
+    }
+
+    @Override
+    public <U> Validated<E, U> andThen(Function<T, Validated<E, U>> function) {
+        Objects.requireNonNull(function, "function cannot be null.");
+        return Objects.requireNonNull(function.apply(value), "function result cannot be null.");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U, R> Validated<E, R> combine(Validated<E, U> other, BiFunction<T, U, R> combiner) {
+        Objects.requireNonNull(other, "other cannot be null.");
+        Objects.requireNonNull(combiner, "combiner cannot be null.");
+        if (other.isInvalid()) {
+            return (Validated<E, R>) other;
+        }
+        return new Valid<>(combiner.apply(value, other.unwrap()));
+    }
+
+    @Override
+    public <R> R fold(Function<List<E>, R> ifInvalid, Function<T, R> ifValid) {
+        Objects.requireNonNull(ifInvalid, "ifInvalid cannot be null.");
+        Objects.requireNonNull(ifValid, "ifValid cannot be null.");
+        return ifValid.apply(value);
+    }
+
+    @Override
+    public Option<T> toOption() {
+        return new Some<>(value);
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        return anObject instanceof Valid && value.equals(((Valid<?, ?>) anObject).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Valid(" + value + ")";
+    }
+}
@@ -0,0 +1,160 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi.validated;
+
+import fr.songbird.rapi.option.Option;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Represents either a valid value or the errors explaining why it isn't valid.
+ * <p>
+ * Unlike {@link Option#andThen(Function)}, which stops at the first {@code None},
+ * {@link #combine(Validated, BiFunction)} runs every validation and accumulates all of their errors:
+ * <pre>{@code
+ * final Validated<String, String> name = validateName(form.name());
+ * final Validated<String, Integer> age = validateAge(form.age());
+ * final Validated<String, User> user = name.combine(age, User::new);
+ * if (user.isInvalid()) {
+ *     user.errors().forEach(System.out::println); // every error, not only the name ones
+ * }
+ * }</pre>
+ * The errors are accumulated in a tree whose combination is O(1): they're only copied into a {@link List}
+ * when {@link #errors()} is called. Combining valid values allocates nothing but the result.
+ * @param <E> The error type.
+ * @param <T> The valid value type.
+ * @since 19/10/26
+ */
+public interface Validated<E, T> {
+
+    /**
+     * @param value The valid value.
+     * @param <E> The error type.
+     * @param <T> The valid value type.
+     * @return A new {@link Valid} container.
+     * @throws NullPointerException If {@code value} is null.
+     */
+    static <E, T> Validated<E, T> valid(T value) {
+        return new Valid<>(value);
+    }
+
+    /**
+     * @param error The error.
+     * @param <E> The error type.
+     * @param <T> The valid value type.
+     * @return A new {@link Invalid} container holding {@code error}.
+     * @throws NullPointerException If {@code error} is null.
+     */
+    static <E, T> Validated<E, T> invalid(E error) {
+        return new Invalid<>(error);
+    }
+
+    /**
+     * @param option The option to convert.
+     * @param error Computes the error if {@code option} is {@code None}.
+     * @param <E> The error type.
+     * @param <T> The valid value type.
+     * @return {@link Valid} holding the contained value if {@code option} is {@code Some}, {@link Invalid} holding
+     * the {@code error} result otherwise.
+     * @throws NullPointerException If either {@code option}, {@code error} or the {@code error} result is null.
+     */
+    static <E, T> Validated<E, T> fromOption(Option<T> option, Supplier<E> error) {
+        Objects.requireNonNull(option, "`option` cannot be null.");
+        Objects.requireNonNull(error, "`error` cannot be null.");
+        return option.isSome() ? new Valid<>(option.unwrap()) : new Invalid<>(error.get());
+    }
+
+    /**
+     * @return {@code true} if the container is {@link Valid}, {@code false} otherwise.
+     */
+    boolean isValid();
+
+    /**
+     * @return {@code true} if the container is {@link Invalid}, {@code false} otherwise.
+     */
+    boolean isInvalid();
+
+    /**
+     * @return The valid value, throws a {@link RuntimeException} otherwise.
+     */
+    T unwrap();
+
+    /**
+     * @param defaultValue The default value to return.
+     * @return The valid value if the container is {@link Valid}, the default value otherwise.
+     * @throws NullPointerException If {@code defaultValue} is null.
+     */
+    T unwrapOr(T defaultValue);
+
+    /**
+     * @return Every accumulated error, in order. Empty if the container is {@link Valid}.
+     */
+    List<E> errors();
+
+    /**
+     * @return The number of accumulated errors, without materializing them.
+     */
+    int errorCount();
+
+    /**
+     * Maps the valid value, if any.
+     * @param appliedFunction Function to apply.
+     * @param <U> The new valid value type.
+     * @return A new {@link Valid} holding the {@code appliedFunction} result, or this container's errors.
+     * @throws NullPointerException If either {@code appliedFunction} or its result is null.
+     */
+    <U> Validated<E, U> map(Function<T, U> appliedFunction);
+
+    /**
+     * Chains a validation depending on the valid value. Fails fast: {@code function} isn't called if the
+     * container is {@link Invalid}.
+     * @param function The validation to chain.
+     * @param <U> The new valid value type.
+     * @return The {@code function} result, or this container's errors.
+     * @throws NullPointerException If either {@code function} or its result is null.
+     */
+    <U> Validated<E, U> andThen(Function<T, Validated<E, U>> function);
+
+    /**
+     * Combines two independent validations, accumulating their errors.
+     * @param other The other validation.
+     * @param combiner Combines both valid values.
+     * @param <U> The other valid value type.
+     * @param <R> The combined value type.
+     * @return {@link Valid} holding the {@code combiner} result if both containers are valid, {@link Invalid}
+     * holding the errors of this container followed by the errors of {@code other} otherwise.
+     * @throws NullPointerException If either {@code other}, {@code combiner} or the {@code combiner} result is null.
+     */
+    <U, R> Validated<E, R> combine(Validated<E, U> other, BiFunction<T, U, R> combiner);
+
+    /**
+     * @param ifInvalid Applied to the errors if the container is {@link Invalid}.
+     * @param ifValid Applied to the value if the container is {@link Valid}.
+     * @param <R> The returned type.
+     * @return The result of the applied function.
+     * @throws NullPointerException If either {@code ifInvalid} or {@code ifValid} is null.
+     */
+    <R> R fold(Function<List<E>, R> ifInvalid, Function<T, R> ifValid);
+
+    /**
+     * @return {@code Some} holding the valid value, the shared {@code None} instance if the container is
+     * {@link Invalid}.
+     */
+    Option<T> toOption();
+}
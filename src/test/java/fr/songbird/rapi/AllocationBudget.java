@@ -0,0 +1,114 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Measures the bytes allocated per call of an operation, using the per-thread allocation counter
+ * of {@code com.sun.management.ThreadMXBean}.
+ * <pre>{@code
+ * final Option<String> none = new None<>();
+ * AllocationBudget.assertWithin("None.map", 0, () -> none.map(String::length));
+ * }</pre>
+ * The operation is warmed up before being measured, and the counter is read once around the whole
+ * measurement loop so its own cost is amortized away. Every result is published to a shared field, so
+ * the JIT can't scalar-replace what the operation returns: a {@code Some} escaping to the caller is
+ * counted, as it would be in real code.
+ * @since 19/10/26
+ */
+final class AllocationBudget {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    /**
+     * Upper bound of a {@code Some} shallow size: a 16 bytes header plus an uncompressed reference.
+     */
+    static final long SOME_SIZE = 24;
+
+    /**
+     * Receives the operation results, so that they escape.
+     */
+    private static Object sink;
+
+    private AllocationBudget() {
+
+    }
+
+    /**
+     * Skips the calling test if the running JVM can't count allocated bytes per thread.
+     */
+    static void assumeSupported() {
+        Assume.assumeTrue("per-thread allocation counting is not supported by this JVM", threadMXBean() != null);
+    }
+
+    /**
+     * @param operation The operation to measure.
+     * @return The average number of bytes allocated by one {@code operation} call.
+     */
+    static long bytesPerOperation(Supplier<?> operation) {
+        final com.sun.management.ThreadMXBean bean = threadMXBean();
+        if (bean == null) {
+            throw new IllegalStateException("per-thread allocation counting is not supported by this JVM");
+        }
+        final long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        final long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        final long after = bean.getThreadAllocatedBytes(threadId);
+        return (after - before) / MEASURED_ITERATIONS;
+    }
+
+    /**
+     * Fails if {@code operation} allocates more than {@code budget} bytes per call.
+     * @param name The operation name, used in the failure message.
+     * @param budget The maximum number of bytes one call may allocate.
+     * @param operation The operation to measure.
+     */
+    static void assertWithin(String name, long budget, Supplier<?> operation) {
+        final long measured = bytesPerOperation(operation);
+        if (measured > budget) {
+            fail("`" + name + "` allocates " + measured + " bytes per operation, its budget is " + budget + " bytes.");
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return sunBean;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.loader.BatchingLoader;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Runs {@link BatchingLoader} against a local stub store.
+ * @since 19/10/26
+ */
+public class BatchingLoaderTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final StubStore store = new StubStore();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void batchesBySizeTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 3, false);
+        final CompletableFuture<Option<String>> one = loader.load(1);
+        final CompletableFuture<Option<String>> two = loader.load(2);
+        assertThat(one.isDone(), is(false));
+        final CompletableFuture<Option<String>> missing = loader.load(-3);
+        assertThat(store.calls(), is(equalTo(Collections.singletonList(new HashSet<>(Arrays.asList(1, 2, -3))))));
+        assertThat(one.get(), is(equalTo(new Some<>("v1"))));
+        assertThat(two.get(), is(equalTo(new Some<>("v2"))));
+        assertThat(missing.get() == None.<String>none(), is(true));
+    }
+
+    @Test
+    public void deduplicatesTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 100, false);
+        final CompletableFuture<Option<String>> first = loader.load(1);
+        assertThat(loader.load(1) == first, is(true));
+        loader.load(2);
+        loader.dispatch();
+        loader.dispatch(); // nothing left to dispatch
+        assertThat(store.calls(), is(equalTo(Collections.singletonList(new HashSet<>(Arrays.asList(1, 2))))));
+        assertThat(first.get(), is(equalTo(new Some<>("v1"))));
+    }
+
+    @Test
+    public void batchesByTickTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 100, false, scheduler, 10, TimeUnit.MILLISECONDS);
+        final CompletableFuture<Option<String>> one = loader.load(1);
+        final CompletableFuture<Option<String>> two = loader.load(2);
+        assertThat(one.get(5, TimeUnit.SECONDS), is(equalTo(new Some<>("v1"))));
+        assertThat(two.get(5, TimeUnit.SECONDS), is(equalTo(new Some<>("v2"))));
+        assertThat(store.calls().size(), is(1));
+    }
+
+    @Test
+    public void staleTickTest() throws Exception {
+        final RecordingScheduler ticks = new RecordingScheduler();
+        try {
+            final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 2, false, ticks, 10, TimeUnit.MILLISECONDS);
+            loader.load(1);
+            loader.load(2); // dispatched by size, before its tick
+            final CompletableFuture<Option<String>> three = loader.load(3);
+            assertThat(ticks.ticks.size(), is(2));
+            ticks.ticks.get(0).run(); // the tick of the first batch doesn't cut the second one short
+            assertThat(three.isDone(), is(false));
+            ticks.ticks.get(1).run();
+            assertThat(three.get(), is(equalTo(new Some<>("v3"))));
+            assertThat(store.calls().size(), is(2));
+        }
+        finally {
+            ticks.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectedTickTest() {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 100, true, scheduler, 10, TimeUnit.MILLISECONDS);
+        scheduler.shutdown();
+        boolean rejected = false;
+        try {
+            loader.load(1);
+        }
+        catch (RejectedExecutionException e) {
+            rejected = true;
+        }
+        assertThat(rejected, is(true));
+        // the rejected key isn't left pending, nor cached.
+        expectedException.expect(RejectedExecutionException.class);
+        loader.load(1);
+    }
+
+    @Test
+    public void cacheTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 100, true);
+        loader.load(1);
+        loader.dispatch();
+        final CompletableFuture<Option<String>> cached = loader.load(1);
+        assertThat(cached.isDone(), is(true));
+        loader.dispatch();
+        assertThat(store.calls().size(), is(1));
+    }
+
+    @Test
+    public void failureTest() throws Exception {
+        final List<Set<Integer>> calls = new ArrayList<>();
+        final Function<Set<Integer>, Map<Integer, String>> flaky = keys -> {
+            calls.add(new HashSet<>(keys));
+            if (calls.size() == 1) {
+                throw new IllegalStateException("store unavailable");
+            }
+            return store.apply(keys);
+        };
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(flaky, 100, true);
+        final CompletableFuture<Option<String>> failed = loader.load(1);
+        loader.dispatch();
+        assertThat(failed.isCompletedExceptionally(), is(true));
+        // a failed key isn't cached: loading it again retries.
+        final CompletableFuture<Option<String>> retried = loader.load(1);
+        loader.dispatch();
+        assertThat(retried.get(), is(equalTo(new Some<>("v1"))));
+        assertThat(calls.size(), is(2));
+    }
+
+    @Test
+    public void errorTest() {
+        final AssertionError failure = new AssertionError("broken store");
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(keys -> {
+            throw failure;
+        }, 100, true);
+        final CompletableFuture<Option<String>> failed = loader.load(1);
+        boolean rethrown = false;
+        try {
+            loader.dispatch();
+        }
+        catch (AssertionError e) {
+            rethrown = e == failure;
+        }
+        assertThat(rethrown, is(true));
+        assertThat(failed.isCompletedExceptionally(), is(true));
+        assertThat(loader.load(1) != failed, is(true)); // not cached
+    }
+
+    @Test
+    public void concurrentLoadsTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(store, 16, true, scheduler, 1, TimeUnit.MILLISECONDS);
+        final ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(callers.submit(() -> {
+                    final List<CompletableFuture<Option<String>>> futures = new ArrayList<>();
+                    for (int key = 0; key < 200; key++) {
+                        futures.add(loader.load(key % 100));
+                    }
+                    for (int key = 0; key < 200; key++) {
+                        if (!futures.get(key).get(5, TimeUnit.SECONDS).equals(new Some<>("v" + key % 100))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                assertThat(result.get(), is(true));
+            }
+        }
+        finally {
+            callers.shutdownNow();
+        }
+        // every key was loaded once, in batches of at most 16 keys.
+        final List<Integer> loaded = new ArrayList<>();
+        for (final Set<Integer> call : store.calls()) {
+            assertThat(call.size() <= 16, is(true));
+            loaded.addAll(call);
+        }
+        assertThat(loaded.size(), is(100));
+        assertThat(new HashSet<>(loaded).size(), is(100));
+    }
+
+    @Test
+    public void nullResultTest() throws Exception {
+        final BatchingLoader<Integer, String> loader = new BatchingLoader<>(keys -> null, 1, false);
+        expectedException.expect(ExecutionException.class);
+        loader.load(1).get();
+    }
+
+    /**
+     * Records the ticks instead of running them, so that tests run them in the order they choose.
+     */
+    private static final class RecordingScheduler extends ScheduledThreadPoolExecutor {
+
+        private final List<Runnable> ticks = new ArrayList<>();
+
+        private RecordingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            ticks.add(command);
+            return super.schedule(() -> { }, 0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Maps every non-negative key {@code k} to {@code "v" + k}, and records its bulk calls.
+     */
+    private static final class StubStore implements Function<Set<Integer>, Map<Integer, String>> {
+
+        private final List<Set<Integer>> calls = new ArrayList<>();
+
+        @Override
+        public synchronized Map<Integer, String> apply(Set<Integer> keys) {
+            calls.add(new HashSet<>(keys));
+            final Map<Integer, String> values = new HashMap<>();
+            for (final Integer key : keys) {
+                if (key >= 0) {
+                    values.put(key, "v" + key);
+                }
+            }
+            return values;
+        }
+
+        synchronized List<Set<Integer>> calls() {
+            return new ArrayList<>(calls);
+        }
+    }
+}
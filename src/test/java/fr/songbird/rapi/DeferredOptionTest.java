@@ -0,0 +1,129 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.DeferredOption;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class DeferredOptionTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void stepsAreNotRunUntilTerminalTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        final DeferredOption<Integer> deferred = DeferredOption.defer(() -> {
+            calls.incrementAndGet();
+            return new Some<>("Hello there!");
+        }).map(s -> {
+            calls.incrementAndGet();
+            return s.length();
+        });
+        assertThat(calls.get(), is(0));
+        assertThat(deferred.isEvaluated(), is(false));
+        assertThat(deferred.unwrapOr(0), is(12));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void evaluationIsMemoizedTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        final DeferredOption<Integer> deferred = DeferredOption.of(new Some<>(2))
+                .andThen(x -> {
+                    calls.incrementAndGet();
+                    return new Some<>(x * x);
+                });
+        assertThat(deferred.isSome(), is(true));
+        assertThat(deferred.unwrap(), is(4));
+        assertThat(deferred.mapOr(0, x -> x + 1), is(5));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void sharedPrefixIsEvaluatedOnceTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        final DeferredOption<Integer> prefix = DeferredOption.defer(() -> {
+            calls.incrementAndGet();
+            return new Some<>(10);
+        });
+        final DeferredOption<Integer> left = prefix.map(x -> x + 1);
+        final DeferredOption<Integer> right = prefix.map(x -> x - 1);
+        assertThat(left.unwrap(), is(11));
+        assertThat(right.unwrap(), is(9));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void orAndOrElseTest() {
+        final DeferredOption<String> none = DeferredOption.of(new None<>());
+        assertThat(none.or(new Some<>("a")), is(equalTo(new Some<>("a"))));
+        assertThat(none.orElse(() -> new Some<>("b")).unwrap(), is("b"));
+        assertThat(none.map(String::length).isNone(), is(true));
+        assertThat(new Some<>("a").equals(DeferredOption.of(new Some<>("a"))), is(true));
+    }
+
+    @Test
+    public void hashCodeTest() {
+        final DeferredOption<String> deferred = DeferredOption.defer(() -> new Some<>("a"));
+        assertThat(deferred.equals(new Some<>("a")), is(true));
+        assertThat(deferred.hashCode(), is(new Some<>("a").hashCode()));
+        assertThat(deferred.isEvaluated(), is(true));
+        final DeferredOption<Integer> none = DeferredOption.of(new Some<>("a")).map(String::length).and(new None<>());
+        assertThat(none.equals(None.none()), is(true));
+        assertThat(none.hashCode(), is(None.none().hashCode()));
+    }
+
+    @Test
+    public void longChainDoesNotOverflowTest() {
+        DeferredOption<Integer> deferred = DeferredOption.of(new Some<>(0));
+        for (int i = 0; i < 1_000_000; i++) {
+            deferred = deferred.map(x -> x + 1);
+        }
+        assertThat(deferred.unwrap(), is(1_000_000));
+    }
+
+    @Test
+    public void nullStepResultTest() {
+        expectedException.expect(NullPointerException.class);
+        final DeferredOption<Integer> deferred = DeferredOption.defer(() -> null);
+        deferred.isSome();
+    }
+
+    @Test
+    public void unwrapNoneTest() {
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("called `"
+                + Option.class.getName() + ".unwrap()` on a `None` object");
+        DeferredOption.of(new Some<>(1)).andThen(x -> new None<Integer>()).unwrap();
+    }
+}
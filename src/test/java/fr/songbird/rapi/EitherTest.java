@@ -0,0 +1,96 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.either.Either;
+import fr.songbird.rapi.either.Left;
+import fr.songbird.rapi.either.Right;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class EitherTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private final Either<String, Integer> left = new Left<>("cached");
+    private final Either<String, Integer> right = new Right<>(42);
+
+    @Test
+    public void isLeftIsRightTest() {
+        assertThat(left.isLeft(), is(true));
+        assertThat(left.isRight(), is(false));
+        assertThat(right.isLeft(), is(false));
+        assertThat(right.isRight(), is(true));
+    }
+
+    @Test
+    public void projectionsTest() {
+        assertThat(left.left(), is(equalTo(new Some<>("cached"))));
+        assertThat(left.right() == None.<Integer>none(), is(true));
+        assertThat(right.right(), is(equalTo(new Some<>(42))));
+        assertThat(right.left() == None.<String>none(), is(true));
+    }
+
+    @Test
+    public void mapIsRightBiasedTest() {
+        assertThat(right.map(x -> x + 1), is(equalTo(new Right<String, Integer>(43))));
+        assertThat(left.map(x -> x + 1) == (Object) left, is(true));
+        assertThat(left.mapLeft(String::length), is(equalTo(new Left<Integer, Integer>(6))));
+        assertThat(right.mapLeft(String::length) == (Object) right, is(true));
+    }
+
+    @Test
+    public void andThenTest() {
+        assertThat(right.andThen(x -> new Left<>("too big")), is(equalTo(new Left<String, Integer>("too big"))));
+        assertThat(right.andThen(x -> new Right<>(x * 2)), is(equalTo(new Right<String, Integer>(84))));
+        assertThat(left.andThen(x -> new Right<>(x * 2)) == (Object) left, is(true));
+    }
+
+    @Test
+    public void foldAndSwapTest() {
+        assertThat(left.fold(String::length, x -> x), is(6));
+        assertThat(right.fold(String::length, x -> x), is(42));
+        assertThat(left.swap(), is(equalTo(new Right<Integer, String>("cached"))));
+        assertThat(right.swap(), is(equalTo(new Left<Integer, String>(42))));
+    }
+
+    @Test
+    public void emptyProjectionAllocationTest() {
+        AllocationBudget.assumeSupported();
+        AllocationBudget.assertWithin("Left.right", 0, left::right);
+        AllocationBudget.assertWithin("Right.left", 0, right::left);
+        AllocationBudget.assertWithin("Left.map", 0, () -> left.map(x -> x + 1));
+    }
+
+    @Test
+    public void nullValueTest() {
+        expectedException.expect(NullPointerException.class);
+        new Right<String, Integer>(null);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.MutableOption;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class MutableOptionTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private static final String[] FIELDS = {"12", "", "7", "x", "42"};
+
+    @Test
+    public void setAndClearTest() {
+        final MutableOption<String> option = new MutableOption<>();
+        assertThat(option.isNone(), is(true));
+        assertThat(option.set("foo").isSome(), is(true));
+        assertThat(option.unwrap(), is("foo"));
+        assertThat(option.clear().isNone(), is(true));
+        assertThat(option.set(new Some<>("bar")).unwrap(), is("bar"));
+        assertThat(option.set(None.<String>none()).isNone(), is(true));
+    }
+
+    @Test
+    public void readOnlyCombinatorsTest() {
+        final MutableOption<String> option = new MutableOption<String>().set("foo");
+        assertThat(option.unwrapOr("bar"), is("foo"));
+        assertThat(option.mapOr(0, String::length), is(3));
+        assertThat(option.map(String::length), is(equalTo(new Some<>(3))));
+        assertThat(option.andThen(s -> None.<Integer>none()).isNone(), is(true));
+        option.clear();
+        assertThat(option.unwrapOrElse(() -> "bar"), is("bar"));
+        assertThat(option.mapOrElse(() -> -1, String::length), is(-1));
+        assertThat(option.map(String::length) == None.<Integer>none(), is(true));
+    }
+
+    @Test
+    public void andOrCombinatorsTest() {
+        final MutableOption<String> option = new MutableOption<String>().set("foo");
+        assertThat(option.and(new Some<>(1)), is(equalTo(new Some<>(1))));
+        assertThat(option.or(new Some<>("bar")), is(equalTo(new Some<>("foo"))));
+        assertThat(option.orElse(() -> new Some<>("bar")), is(equalTo(new Some<>("foo"))));
+        final Option<String> snapshot = option.or(None.none());
+        option.set("baz");
+        assertThat(snapshot, is(equalTo(new Some<>("foo")))); // unaffected by later changes
+        option.clear();
+        assertThat(option.and(new Some<>(1)) == None.<Integer>none(), is(true));
+        assertThat(option.or(new Some<>("bar")), is(equalTo(new Some<>("bar"))));
+        assertThat(option.orElse(() -> new Some<>("bar")), is(equalTo(new Some<>("bar"))));
+    }
+
+    @Test
+    public void conversionsTest() {
+        final MutableOption<String> option = new MutableOption<String>().set("foo");
+        assertThat(option.toOptional(), is(equalTo(Optional.of("foo"))));
+        assertThat(option.toNullable(), is("foo"));
+        option.clear();
+        assertThat(option.toOptional().isPresent(), is(false));
+        assertThat(option.toNullable() == null, is(true));
+    }
+
+    @Test
+    public void getOrInsertTest() {
+        final MutableOption<String> option = new MutableOption<>();
+        assertThat(option.getOrInsert("foo"), is("foo"));
+        assertThat(option.getOrInsert("bar"), is("foo"));
+        assertThat(option.getOrInsertWith(() -> "baz"), is("foo"));
+        option.clear();
+        assertThat(option.getOrInsertWith(() -> "baz"), is("baz"));
+    }
+
+    @Test
+    public void takeAndFreezeTest() {
+        final MutableOption<String> option = new MutableOption<String>().set("foo");
+        final Option<String> frozen = option.freeze();
+        option.set("bar");
+        assertThat(frozen, is(equalTo(new Some<>("foo"))));
+        assertThat(option.take(), is(equalTo(new Some<>("bar"))));
+        assertThat(option.isNone(), is(true));
+        assertThat(option.take() == None.<String>none(), is(true));
+    }
+
+    @Test
+    public void parsingLoopAllocationTest() {
+        AllocationBudget.assumeSupported();
+        final MutableOption<String> cursor = new MutableOption<>();
+        // the cursor is reused: parsing the fields allocates nothing.
+        AllocationBudget.assertWithin("MutableOption parsing loop", 0, () -> {
+            int present = 0;
+            for (final String field : FIELDS) {
+                parse(field, cursor);
+                if (cursor.isSome()) {
+                    present++;
+                }
+            }
+            return present;
+        });
+    }
+
+    @Test
+    public void unwrapEmptyTest() {
+        expectedException.expect(RuntimeException.class);
+        new MutableOption<String>().unwrap();
+    }
+
+    private static void parse(String field, MutableOption<String> cursor) {
+        if (field.isEmpty() || !Character.isDigit(field.charAt(0))) {
+            cursor.clear();
+        }
+        else {
+            cursor.set(field);
+        }
+    }
+}
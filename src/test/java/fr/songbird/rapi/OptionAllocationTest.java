@@ -0,0 +1,120 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Options;
+import fr.songbird.rapi.option.Some;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static fr.songbird.rapi.AllocationBudget.SOME_SIZE;
+import static fr.songbird.rapi.AllocationBudget.assertWithin;
+
+/**
+ * Allocation budgets of the {@link Option} operations. A failure here means an operation started
+ * allocating more than it used to.
+ * @since 19/10/26
+ */
+public class OptionAllocationTest {
+
+    private final Option<String> some = new Some<>("Hello there!");
+    private final Option<String> none = new None<>();
+    private final Option<String> fallback = new Some<>("fallback");
+    private final Function<String, String> identity = s -> s;
+    private final Function<String, Option<String>> toFallback = s -> fallback;
+    private final Supplier<Option<String>> fallbackSupplier = () -> fallback;
+    private final Supplier<String> defaultValue = () -> "default";
+
+    @Before
+    public void setUp() {
+        AllocationBudget.assumeSupported();
+    }
+
+    @Test
+    public void noneBudgetsTest() {
+        assertWithin("None.isSome", 0, () -> none.isSome());
+        assertWithin("None.map", 0, () -> none.map(identity));
+        assertWithin("None.and", 0, () -> none.and(fallback));
+        assertWithin("None.andThen", 0, () -> none.andThen(toFallback));
+        assertWithin("None.or", 0, () -> none.or(fallback));
+        assertWithin("None.orElse", 0, () -> none.orElse(fallbackSupplier));
+        assertWithin("None.unwrapOr", 0, () -> none.unwrapOr("default"));
+        assertWithin("None.unwrapOrElse", 0, () -> none.unwrapOrElse(defaultValue));
+        assertWithin("None.mapOr", 0, () -> none.mapOr("default", identity));
+    }
+
+    @Test
+    public void someBudgetsTest() {
+        assertWithin("Some.isSome", 0, () -> some.isSome());
+        assertWithin("Some.map", SOME_SIZE, () -> some.map(identity));
+        assertWithin("Some.and", 0, () -> some.and(fallback));
+        assertWithin("Some.andThen", 0, () -> some.andThen(toFallback));
+        assertWithin("Some.or", 0, () -> some.or(fallback));
+        assertWithin("Some.orElse", 0, () -> some.orElse(fallbackSupplier));
+        assertWithin("Some.unwrap", 0, () -> some.unwrap());
+        assertWithin("Some.unwrapOr", 0, () -> some.unwrapOr("default"));
+        assertWithin("Some.mapOr", 0, () -> some.mapOr("default", identity));
+        assertWithin("Some.mapOrElse", 0, () -> some.mapOrElse(defaultValue, identity));
+    }
+
+    @Test
+    public void constructionBudgetsTest() {
+        assertWithin("None.none", 0, None::none);
+        assertWithin("new Some", SOME_SIZE, () -> new Some<>("Hello there!"));
+    }
+
+    @Test
+    public void emptyConversionBudgetsTest() {
+        final Optional<String> empty = Optional.empty();
+        assertWithin("Option.ofNullable(null)", 0, () -> Option.ofNullable(null));
+        assertWithin("Option.fromOptional(empty)", 0, () -> Option.fromOptional(empty));
+        assertWithin("None.toOptional", 0, () -> none.toOptional());
+        assertWithin("None.toNullable", 0, () -> none.toNullable());
+        assertWithin("Some.toNullable", 0, () -> some.toNullable());
+        assertWithin("None round trip", 0, () -> Option.fromOptional(none.toOptional()));
+    }
+
+    @Test
+    public void canonicalSomeBudgetsTest() {
+        final Object[] traffic = {Boolean.TRUE, 42, TimeUnit.SECONDS, 7L, Boolean.FALSE, 0, TimeUnit.MILLISECONDS, -1};
+        final int[] next = new int[1];
+        assertWithin("Option.of(mix of cached values)", 0, () -> Option.of(traffic[next[0]++ & 7]));
+        final Integer large = 1024;
+        assertWithin("Option.of(1024)", SOME_SIZE, () -> Option.of(large));
+        assertWithin("Options.parseInt(small)", 0, () -> Options.parseInt("42"));
+        assertWithin("Options.parseEnum", 0, () -> Options.parseEnum(TimeUnit.class, "SECONDS"));
+    }
+
+    @Test
+    public void invalidParseBudgetsTest() {
+        final CharSequence invalid = "12a4-oops-0000-0000-000000000000";
+        assertWithin("Options.parseInt(invalid)", 0, () -> Options.parseInt(invalid, 0, 4));
+        assertWithin("Options.parseLong(invalid)", 0, () -> Options.parseLong(invalid));
+        assertWithin("Options.parseDouble(invalid)", 0, () -> Options.parseDouble(invalid));
+        assertWithin("Options.parseBoolean(invalid)", 0, () -> Options.parseBoolean(invalid));
+        assertWithin("Options.parseUUID(invalid)", 0, () -> Options.parseUUID(invalid));
+        assertWithin("Options.parseEnum(invalid)", 0, () -> Options.parseEnum(TimeUnit.class, invalid));
+    }
+}
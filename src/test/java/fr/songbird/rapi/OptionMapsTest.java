@@ -0,0 +1,120 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.OptionMaps;
+import fr.songbird.rapi.option.Some;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class OptionMapsTest {
+
+    private static int sum;
+
+    private static void add(Integer value) {
+        sum += value;
+    }
+
+    private static Map<String, Integer> ports() {
+        final Map<String, Integer> ports = new HashMap<>();
+        ports.put("http", 80);
+        ports.put("https", 443);
+        return ports;
+    }
+
+    @Test
+    public void getTest() {
+        final Map<String, Integer> ports = ports();
+        assertThat(OptionMaps.get(ports, "http"), is(equalTo(new Some<>(80))));
+        assertThat(OptionMaps.get(ports, "ftp") == None.<Integer>none(), is(true));
+    }
+
+    @Test
+    public void ifSomeTest() {
+        final Map<String, Integer> ports = ports();
+        final List<Integer> received = new ArrayList<>();
+        assertThat(OptionMaps.ifSome(ports, "https", received::add), is(true));
+        assertThat(OptionMaps.ifSome(ports, "ftp", received::add), is(false));
+        assertThat(received, is(equalTo(Collections.singletonList(443))));
+    }
+
+    @Test
+    public void removeTest() {
+        final Map<String, Integer> ports = ports();
+        assertThat(OptionMaps.remove(ports, "http"), is(equalTo(new Some<>(80))));
+        assertThat(OptionMaps.remove(ports, "http") == None.<Integer>none(), is(true));
+        final List<Integer> received = new ArrayList<>();
+        assertThat(OptionMaps.ifRemoved(ports, "https", received::add), is(true));
+        assertThat(OptionMaps.ifRemoved(ports, "https", received::add), is(false));
+        assertThat(ports.isEmpty(), is(true));
+    }
+
+    @Test
+    public void computeIfAbsentOptionTest() {
+        final Map<String, Integer> ports = ports();
+        assertThat(OptionMaps.computeIfAbsentOption(ports, "ssh", k -> new Some<>(22)), is(equalTo(new Some<>(22))));
+        assertThat(ports.get("ssh"), is(22));
+        assertThat(OptionMaps.computeIfAbsentOption(ports, "ftp", k -> None.none()) == None.<Integer>none(), is(true));
+        assertThat(ports.containsKey("ftp"), is(false));
+        assertThat(OptionMaps.computeIfAbsentOption(ports, "http", k -> new Some<>(8080)), is(equalTo(new Some<>(80))));
+    }
+
+    @Test
+    public void concurrentMapTest() {
+        final ConcurrentMap<String, Integer> ports = new ConcurrentHashMap<>(ports());
+        assertThat(OptionMaps.getOrInsertWith(ports, "http", () -> 8080), is(80));
+        assertThat(OptionMaps.getOrInsertWith(ports, "ssh", () -> 22), is(22));
+        assertThat(OptionMaps.computeIfAbsentOption(ports, "ftp", k -> None.none()) == None.<Integer>none(), is(true));
+        assertThat(OptionMaps.computeIfAbsentOption(ports, "smtp", k -> new Some<>(25)), is(equalTo(new Some<>(25))));
+        assertThat(ports.size(), is(4));
+    }
+
+    @Test
+    public void getOrInsertWithTest() {
+        final Map<String, Integer> ports = ports();
+        assertThat(OptionMaps.getOrInsertWith(ports, "https", () -> 8443), is(443));
+        assertThat(OptionMaps.getOrInsertWith(ports, "ssh", () -> 22), is(22));
+        assertThat(ports.get("ssh"), is(22));
+    }
+
+    @Test
+    public void lookupAllocationTest() {
+        AllocationBudget.assumeSupported();
+        final Map<String, Integer> ports = ports();
+        final Map<String, Integer> concurrentPorts = new ConcurrentHashMap<>(ports);
+        AllocationBudget.assertWithin("OptionMaps.get (miss)", 0, () -> OptionMaps.get(ports, "ftp"));
+        AllocationBudget.assertWithin("OptionMaps.get (ConcurrentHashMap miss)", 0, () -> OptionMaps.get(concurrentPorts, "ftp"));
+        AllocationBudget.assertWithin("OptionMaps.get (hit)", AllocationBudget.SOME_SIZE, () -> OptionMaps.get(ports, "http"));
+        AllocationBudget.assertWithin("OptionMaps.ifSome (hit)", 0, () -> OptionMaps.ifSome(ports, "http", OptionMapsTest::add));
+    }
+}
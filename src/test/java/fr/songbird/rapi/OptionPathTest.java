@@ -0,0 +1,130 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.OptionPath;
+import fr.songbird.rapi.option.Some;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class OptionPathTest {
+
+    private static final OptionPath<Order, String> CITY = OptionPath.<Order>root()
+            .get(Order::attributes)
+            .<List<Object>>key("addresses")
+            .<Map<String, Object>>index(0)
+            .<String>key("city");
+
+    private static final OptionPath<Order, Integer> DISCOUNT = OptionPath.<Order>root()
+            .getOption(Order::coupon)
+            .get(String::length);
+
+    private static Order order(String city, String coupon) {
+        final Map<String, Object> address = new HashMap<>();
+        address.put("city", city);
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("addresses", Collections.singletonList(address));
+        return new Order(attributes, Option.ofNullable(coupon));
+    }
+
+    @Test
+    public void compileTest() {
+        final Function<Order, Option<String>> city = CITY.compile();
+        assertThat(city.apply(order("Lyon", null)), is(equalTo(new Some<>("Lyon"))));
+        assertThat(city.apply(order(null, null)) == None.<String>none(), is(true));
+        assertThat(city.apply(new Order(new HashMap<>(), None.none())) == None.<String>none(), is(true));
+        assertThat(city.apply(new Order(Collections.singletonMap("addresses", Collections.emptyList()), None.none())).isNone(), is(true));
+        assertThat(city.apply(new Order(Collections.singletonMap("addresses", "not a list"), None.none())).isNone(), is(true));
+        assertThat(city.apply(null).isNone(), is(true));
+    }
+
+    @Test
+    public void compileWithMethodHandlesTest() {
+        final Function<Order, Option<String>> city = CITY.compileWithMethodHandles();
+        assertThat(city.apply(order("Lyon", null)), is(equalTo(new Some<>("Lyon"))));
+        assertThat(city.apply(order(null, null)) == None.<String>none(), is(true));
+        assertThat(city.apply(new Order(Collections.singletonMap("addresses", new Object[0]), None.none())).isNone(), is(true));
+        assertThat(city.apply(null).isNone(), is(true));
+        assertThat(DISCOUNT.compileWithMethodHandles().apply(order("Lyon", "SUMMER")), is(equalTo(new Some<>(6))));
+    }
+
+    @Test
+    public void getOptionTest() {
+        assertThat(DISCOUNT.extract(order("Lyon", "SUMMER")), is(equalTo(new Some<>(6))));
+        assertThat(DISCOUNT.extract(order("Lyon", null)).isNone(), is(true));
+    }
+
+    @Test
+    public void arrayIndexTest() {
+        final OptionPath<Object[], String> second = OptionPath.<Object[]>root().index(1);
+        assertThat(second.extract(new Object[]{"a", "b"}), is(equalTo(new Some<>("b"))));
+        assertThat(second.compile().apply(new Object[]{"a"}).isNone(), is(true));
+    }
+
+    @Test
+    public void rootTest() {
+        assertThat(OptionPath.<String>root().extract("foo"), is(equalTo(new Some<>("foo"))));
+    }
+
+    @Test
+    public void compiledPathAllocationTest() {
+        AllocationBudget.assumeSupported();
+        final Order order = order("Lyon", null);
+        final Order incomplete = new Order(new HashMap<>(), None.none());
+        final Function<Order, Option<String>> city = CITY.compile();
+        final Function<Order, Option<String>> cityHandles = CITY.compileWithMethodHandles();
+        // only the final Some is allocated.
+        AllocationBudget.assertWithin("compiled path (hit)", AllocationBudget.SOME_SIZE, () -> city.apply(order));
+        AllocationBudget.assertWithin("compiled path (miss)", 0, () -> city.apply(incomplete));
+        AllocationBudget.assertWithin("method handles path (miss)", 0, () -> cityHandles.apply(incomplete));
+    }
+
+    private static final class Order {
+
+        private final Map<String, Object> attributes;
+        private final Option<String> coupon;
+
+        private Order(Map<String, Object> attributes, Option<String> coupon) {
+            this.attributes = attributes;
+            this.coupon = coupon;
+        }
+
+        Map<String, Object> attributes() {
+            return attributes;
+        }
+
+        Option<String> coupon() {
+            return coupon;
+        }
+    }
+}
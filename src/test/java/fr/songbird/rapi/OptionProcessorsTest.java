@@ -0,0 +1,279 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.flow.OptionProcessors;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import org.junit.Test;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Checks the processors against the Reactive Streams rules they're most likely to break.
+ * @since 19/10/26
+ */
+public class OptionProcessorsTest {
+
+    @Test
+    public void flattenDropsNoneTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten();
+        new RangePublisher<>(10, i -> i % 2 == 0 ? new Some<>(i) : None.<Integer>none()).subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(0, 2, 4, 6, 8))));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void mapOptionTest() {
+        final Processor<String, Integer> processor = OptionProcessors.mapOption(s -> s.isEmpty() ? None.none() : new Some<>(s.length()));
+        final String[] words = {"a", "", "abc", ""};
+        new RangePublisher<>(words.length, i -> words[i]).subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(1, 3))));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void rule_1_1_demandIsHonoredTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten(4);
+        final RangePublisher<Option<Integer>> publisher = new RangePublisher<>(1_000, i -> i % 3 == 0 ? new Some<>(i) : None.<Integer>none());
+        publisher.subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(0);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values.size(), is(0));
+        subscriber.subscription.request(3);
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(0, 3, 6))));
+        assertThat(subscriber.completed, is(false));
+        // never requests more than the demand plus the replaced elements.
+        assertThat(publisher.requested.get() <= 3 + 6 + 4, is(true));
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.values.size(), is(334));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void droppedElementsReplacedAfterSomeTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten(4);
+        final RangePublisher<Option<Integer>> publisher = new RangePublisher<>(10, i -> i == 0 ? None.<Integer>none() : new Some<>(i));
+        publisher.subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(2);
+        processor.subscribe(subscriber);
+        // the upstream requests end on a Some: the dropped None must still be replaced.
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(1, 2))));
+        assertThat(publisher.requested.get(), is(3L));
+    }
+
+    @Test
+    public void takeWhileSomeTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.takeWhileSome();
+        final RangePublisher<Option<Integer>> publisher = new RangePublisher<>(100, i -> i < 5 ? new Some<>(i) : None.<Integer>none());
+        publisher.subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(0, 1, 2, 3, 4))));
+        assertThat(subscriber.completed, is(true));
+        assertThat(publisher.cancelled.get(), is(true));
+    }
+
+    @Test
+    public void rule_3_9_nonPositiveRequestTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten();
+        final RangePublisher<Option<Integer>> publisher = new RangePublisher<>(10, Some::new);
+        publisher.subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(0);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertThat(subscriber.error instanceof IllegalArgumentException, is(true));
+        assertThat(publisher.cancelled.get(), is(true));
+    }
+
+    @Test
+    public void singleSubscriberTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten();
+        processor.subscribe(new RecordingSubscriber<>(0));
+        final RecordingSubscriber<Integer> second = new RecordingSubscriber<>(0);
+        processor.subscribe(second);
+        assertThat(second.subscription != null, is(true));
+        assertThat(second.error instanceof IllegalStateException, is(true));
+    }
+
+    @Test
+    public void completionBeforeSubscriptionTest() {
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten();
+        new RangePublisher<Option<Integer>>(0, Some::new).subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(0);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.subscription != null, is(true));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void failingFunctionTest() {
+        final IllegalStateException failure = new IllegalStateException("boom");
+        final Processor<Integer, Integer> processor = OptionProcessors.mapOption(i -> {
+            if (i == 2) {
+                throw failure;
+            }
+            return new Some<>(i);
+        });
+        final RangePublisher<Integer> publisher = new RangePublisher<>(10, i -> i);
+        publisher.subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values, is(equalTo(Arrays.asList(0, 1))));
+        assertThat(subscriber.error == failure, is(true));
+        assertThat(publisher.cancelled.get(), is(true));
+    }
+
+    @Test
+    public void oneByOneRequestsTest() {
+        final int count = 1_000_000;
+        final Processor<Option<Integer>, Integer> processor = OptionProcessors.flatten();
+        new RangePublisher<>(count, i -> i % 4 == 0 ? None.<Integer>none() : new Some<>(i)).subscribe(processor);
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>(1) {
+            @Override
+            public void onNext(Integer value) {
+                super.onNext(value);
+                subscription.request(1);
+            }
+        };
+        processor.subscribe(subscriber);
+        assertThat(subscriber.values.size(), is(count - count / 4));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    /**
+     * Synchronous publisher of {@code count} elements, trampolining re-entrant requests.
+     */
+    private static final class RangePublisher<T> implements Publisher<T> {
+
+        private final int count;
+        private final IntFunction<T> element;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private RangePublisher(int count, IntFunction<T> element) {
+            this.count = count;
+            this.element = element;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private final AtomicLong demand = new AtomicLong();
+                private int index;
+
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    long current;
+                    long next;
+                    do {
+                        current = demand.get();
+                        next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                    } while (!demand.compareAndSet(current, next));
+                    if (current != 0) {
+                        return; // another call is emitting
+                    }
+                    long emitted = 0;
+                    while (true) {
+                        final long available = demand.get();
+                        while (emitted != available && index < count) {
+                            if (cancelled.get()) {
+                                return;
+                            }
+                            subscriber.onNext(element.apply(index++));
+                            emitted++;
+                        }
+                        if (index == count) {
+                            if (!cancelled.get()) {
+                                subscriber.onComplete();
+                            }
+                            return;
+                        }
+                        if (demand.addAndGet(-emitted) == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+            if (count == 0) {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private static class RecordingSubscriber<T> implements Subscriber<T> {
+
+        private final long initialRequest;
+        final List<T> values = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
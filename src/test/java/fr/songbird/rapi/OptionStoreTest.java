@@ -0,0 +1,156 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Some;
+import fr.songbird.rapi.store.OptionStore;
+import fr.songbird.rapi.store.ValueEncoder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class OptionStoreTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void directStoreTest() {
+        final OptionStore<Long> store = OptionStore.allocate(1_000, ValueEncoder.LONG);
+        assertThat(store.capacity(), is(1_000L));
+        assertThat(store.get(0) == None.<Long>none(), is(true));
+        store.set(0, -1L);
+        store.set(999, Long.MAX_VALUE);
+        assertThat(store.get(0), is(equalTo(new Some<>(-1L))));
+        assertThat(store.get(999), is(equalTo(new Some<>(Long.MAX_VALUE))));
+        assertThat(store.count(), is(2L));
+        store.clear(0);
+        assertThat(store.isSome(0), is(false));
+        assertThat(store.count(), is(1L));
+    }
+
+    @Test
+    public void forEachTest() {
+        final OptionStore<Integer> store = OptionStore.allocate(10_000, ValueEncoder.INT);
+        store.set(3, 30);
+        store.set(64, 640);
+        store.set(9_999, 99_990);
+        final List<Long> indices = new ArrayList<>();
+        final List<Integer> values = new ArrayList<>();
+        store.forEach((value, index) -> {
+            indices.add(index);
+            values.add(value);
+        });
+        assertThat(indices, is(equalTo(Arrays.asList(3L, 64L, 9_999L))));
+        assertThat(values, is(equalTo(Arrays.asList(30, 640, 99_990))));
+    }
+
+    @Test
+    public void reopenTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("prices.store");
+        try (OptionStore<Double> store = OptionStore.create(file, 100_000, ValueEncoder.DOUBLE)) {
+            store.set(12_345, 1.5);
+            store.set(99_999, -0.25);
+        }
+        try (OptionStore<Double> store = OptionStore.open(file, ValueEncoder.DOUBLE)) {
+            assertThat(store.capacity(), is(100_000L));
+            assertThat(store.get(12_345), is(equalTo(new Some<>(1.5))));
+            assertThat(store.get(99_999), is(equalTo(new Some<>(-0.25))));
+            assertThat(store.get(0).isNone(), is(true));
+            assertThat(store.count(), is(2L));
+        }
+    }
+
+    @Test
+    public void reopenWithOtherWidthTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("ids.store");
+        OptionStore.create(file, 10, ValueEncoder.LONG).close();
+        expectedException.expect(IOException.class);
+        OptionStore.open(file, ValueEncoder.INT);
+    }
+
+    @Test
+    public void reopenWithOtherEncoderTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("offsets.store");
+        OptionStore.create(file, 10, ValueEncoder.LONG).close();
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("another encoder");
+        OptionStore.open(file, ValueEncoder.DOUBLE); // same width, other encoding
+    }
+
+    @Test
+    public void openTruncatedFileTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("truncated.store");
+        OptionStore.create(file, 1_000, ValueEncoder.LONG).close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("truncated");
+        OptionStore.open(file, ValueEncoder.LONG);
+    }
+
+    @Test
+    public void openForeignFileTest() throws IOException {
+        final Path file = folder.newFile("foreign.txt").toPath();
+        Files.write(file, "not a store".getBytes("UTF-8"));
+        expectedException.expect(IOException.class);
+        OptionStore.open(file, ValueEncoder.LONG);
+    }
+
+    @Test
+    public void overflowingCapacityTest() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("too large");
+        OptionStore.allocate(Long.MAX_VALUE / 4, ValueEncoder.LONG); // capacity * width overflows
+    }
+
+    @Test
+    public void overflowingCapacityFileTest() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("huge.store");
+        expectedException.expect(IllegalArgumentException.class);
+        OptionStore.create(file, Long.MAX_VALUE / 4, ValueEncoder.LONG);
+    }
+
+    @Test
+    public void outOfBoundsTest() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        OptionStore.allocate(10, ValueEncoder.LONG).get(10);
+    }
+}
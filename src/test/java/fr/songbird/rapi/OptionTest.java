@@ -19,12 +19,22 @@ package fr.songbird.rapi;
 
 import fr.songbird.rapi.option.None;
 import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Options;
 import fr.songbird.rapi.option.Some;
 import fr.songbird.rapi.ref.ReferenceHandler;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -229,6 +239,105 @@ public class OptionTest {
         final Option<String> barBrother = new Some<>(bar); // error
     }
 
+    @Test
+    public void hashCodeTest() {
+        assertThat(new Some<>("foo").hashCode(), is(new Some<>("foo").hashCode()));
+        assertThat(new Some<>(new Some<>("foo")).hashCode(), is("foo".hashCode()));
+        assertThat(new None<String>().hashCode(), is(None.none().hashCode()));
+        final Set<Option<Integer>> options = new HashSet<>(Arrays.asList(new Some<>(404), new None<>()));
+        assertThat(options.contains(new Some<>(404)), is(true));
+        assertThat(options.contains(None.<Integer>none()), is(true));
+    }
+
+    @Test
+    public void ofNullableTest() {
+        assertThat(Option.ofNullable("foo"), is(equalTo(new Some<>("foo"))));
+        assertThat(Option.ofNullable(null) == None.none(), is(true));
+    }
+
+    @Test
+    public void ofCanonicalTest() {
+        assertThat(Option.of(Boolean.TRUE) == Option.of(true), is(true));
+        assertThat(Option.of(TimeUnit.SECONDS) == Option.of(TimeUnit.SECONDS), is(true));
+        assertThat(Option.of(TimeUnit.SECONDS) == Option.of(TimeUnit.DAYS), is(false));
+        assertThat(Option.of(-128) == Option.of(-128), is(true));
+        assertThat(Option.of(127L) == Option.of(127L), is(true));
+        assertThat(Option.of(128) == Option.of(128), is(false));
+        assertThat(Option.of("foo") == Option.of("foo"), is(false));
+        assertThat(Option.of(TimeUnit.SECONDS), is(equalTo(new Some<>(TimeUnit.SECONDS))));
+        assertThat(Option.of(404), is(equalTo(new Some<>(404))));
+        assertThat(Option.of(7L).unwrap(), is(7L));
+        assertThat(Option.ofNullable(Boolean.FALSE) == Option.of(false), is(true));
+    }
+
+    @Test
+    public void oversizedCacheRangeTest() throws Exception {
+        final String lowProperty = "fr.songbird.rapi.option.cache.low";
+        final String highProperty = "fr.songbird.rapi.option.cache.high";
+        System.setProperty(lowProperty, "-1000000000");
+        System.setProperty(highProperty, "1000000000");
+        // a fresh copy of the option classes, whose cache reads the properties above.
+        final URL classes = Option.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null)) {
+            final Method of = loader.loadClass(Option.class.getName()).getMethod("of", Object.class);
+            // falls back to the default range instead of running out of memory.
+            assertThat(of.invoke(null, 127) == of.invoke(null, 127), is(true));
+            assertThat(of.invoke(null, 128) == of.invoke(null, 128), is(false));
+        }
+        finally {
+            System.clearProperty(lowProperty);
+            System.clearProperty(highProperty);
+        }
+    }
+
+    @Test
+    public void ofNullTest() {
+        expectedException.expect(NullPointerException.class);
+        Option.of(null);
+    }
+
+    @Test
+    public void optionalTest() {
+        assertThat(Option.fromOptional(Optional.of("foo")), is(equalTo(new Some<>("foo"))));
+        assertThat(Option.fromOptional(Optional.empty()) == None.none(), is(true));
+        assertThat(new Some<>("foo").toOptional(), is(equalTo(Optional.of("foo"))));
+        assertThat(new None<String>().toOptional() == Optional.<String>empty(), is(true));
+    }
+
+    @Test
+    public void toNullableTest() {
+        assertThat(new Some<>("foo").toNullable(), is("foo"));
+        assertThat(new None<String>().toNullable() == null, is(true));
+    }
+
+    @Test
+    public void bulkNullablesTest() {
+        final Option<String>[] options = Options.ofNullables(new String[]{"Leon", null, "August"});
+        assertThat(options[0], is(equalTo(new Some<>("Leon"))));
+        assertThat(options[1] == None.<String>none(), is(true));
+        assertThat(Arrays.asList(Options.toNullables(options, new String[3])), is(equalTo(Arrays.asList("Leon", null, "August"))));
+
+        final List<Option<String>> list = Options.ofNullables(Arrays.asList(null, "Leon"));
+        assertThat(list.get(0).isNone(), is(true));
+        assertThat(Options.toNullables(list), is(equalTo(Arrays.asList(null, "Leon"))));
+    }
+
+    @Test
+    public void loopTest() {
+        final int depth = 1_000_000;
+        final Option<Integer> root = Option.loop(0, x -> x < depth ? new Some<>(x + 1) : None.none());
+        assertThat(root, is(equalTo(new Some<>(depth))));
+        assertThat(Option.loop("seed", s -> None.none()), is(equalTo(new Some<>("seed"))));
+    }
+
+    @Test
+    public void tailRecTest() {
+        final int depth = 1_000_000;
+        assertThat(Option.tailRec(0, x -> new Some<>(x + 1), x -> x == depth), is(equalTo(new Some<>(depth))));
+        assertThat(Option.tailRec(0, x -> x < 10 ? new Some<>(x + 1) : None.none(), x -> x == depth).isNone(), is(true));
+        assertThat(Option.tailRec(5, x -> None.none(), x -> x == 5), is(equalTo(new Some<>(5))));
+    }
+
     @Test
     public void useCase1() {
         Integer foo = new Some<>(42)
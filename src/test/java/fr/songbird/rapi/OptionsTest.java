@@ -0,0 +1,122 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Options;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class OptionsTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void parseIntTest() {
+        assertThat(Options.parseInt("42"), is(equalTo(new Some<>(42))));
+        assertThat(Options.parseInt("-42"), is(equalTo(new Some<>(-42))));
+        assertThat(Options.parseInt("+42"), is(equalTo(new Some<>(42))));
+        assertThat(Options.parseInt("2147483647"), is(equalTo(new Some<>(Integer.MAX_VALUE))));
+        assertThat(Options.parseInt("-2147483648"), is(equalTo(new Some<>(Integer.MIN_VALUE))));
+        assertThat(Options.parseInt("2147483648").isNone(), is(true));
+        assertThat(Options.parseInt("-2147483649").isNone(), is(true));
+        assertThat(Options.parseInt("").isNone(), is(true));
+        assertThat(Options.parseInt("-").isNone(), is(true));
+        assertThat(Options.parseInt("4a2").isNone(), is(true));
+        assertThat(Options.parseInt(" 42").isNone(), is(true));
+    }
+
+    @Test
+    public void parseIntRangeTest() {
+        final CharSequence line = new StringBuilder("42;oops;-7");
+        assertThat(Options.parseInt(line, 0, 2), is(equalTo(new Some<>(42))));
+        assertThat(Options.parseInt(line, 3, 4) == None.<Integer>none(), is(true));
+        assertThat(Options.parseInt(line, 8, 2), is(equalTo(new Some<>(-7))));
+    }
+
+    @Test
+    public void parseIntOutOfBoundsTest() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        Options.parseInt("42", 1, 2);
+    }
+
+    @Test
+    public void parseLongTest() {
+        assertThat(Options.parseLong("9223372036854775807"), is(equalTo(new Some<>(Long.MAX_VALUE))));
+        assertThat(Options.parseLong("-9223372036854775808"), is(equalTo(new Some<>(Long.MIN_VALUE))));
+        assertThat(Options.parseLong("9223372036854775808").isNone(), is(true));
+        assertThat(Options.parseLong("12x").isNone(), is(true));
+        assertThat(Options.parseLong("id=12", 3, 2), is(equalTo(new Some<>(12L))));
+    }
+
+    @Test
+    public void parseDoubleTest() {
+        assertThat(Options.parseDouble("1.5"), is(equalTo(new Some<>(1.5))));
+        assertThat(Options.parseDouble("-.5"), is(equalTo(new Some<>(-0.5))));
+        assertThat(Options.parseDouble("3."), is(equalTo(new Some<>(3.0))));
+        assertThat(Options.parseDouble("6.02e23"), is(equalTo(new Some<>(6.02e23))));
+        assertThat(Options.parseDouble("1E-3"), is(equalTo(new Some<>(0.001))));
+        assertThat(Options.parseDouble("-Infinity"), is(equalTo(new Some<>(Double.NEGATIVE_INFINITY))));
+        assertThat(Options.parseDouble("NaN").unwrap().isNaN(), is(true));
+        assertThat(Options.parseDouble("").isNone(), is(true));
+        assertThat(Options.parseDouble(".").isNone(), is(true));
+        assertThat(Options.parseDouble("1e").isNone(), is(true));
+        assertThat(Options.parseDouble("1.5f").isNone(), is(true));
+        assertThat(Options.parseDouble("0x1p3").isNone(), is(true));
+        assertThat(Options.parseDouble("1..5").isNone(), is(true));
+    }
+
+    @Test
+    public void parseBooleanTest() {
+        assertThat(Options.parseBoolean("true"), is(equalTo(new Some<>(true))));
+        assertThat(Options.parseBoolean("FALSE"), is(equalTo(new Some<>(false))));
+        assertThat(Options.parseBoolean("yes").isNone(), is(true));
+        assertThat(Options.parseBoolean("truest").isNone(), is(true));
+    }
+
+    @Test
+    public void parseUUIDTest() {
+        final UUID uuid = UUID.randomUUID();
+        assertThat(Options.parseUUID(uuid.toString()), is(equalTo(new Some<>(uuid))));
+        assertThat(Options.parseUUID(uuid.toString().toUpperCase()), is(equalTo(new Some<>(uuid))));
+        assertThat(Options.parseUUID("[" + uuid + "]", 1, 36), is(equalTo(new Some<>(uuid))));
+        assertThat(Options.parseUUID("123e4567-e89b-12d3-a456-42661417400g").isNone(), is(true));
+        assertThat(Options.parseUUID("123e4567+e89b-12d3-a456-426614174000").isNone(), is(true));
+        assertThat(Options.parseUUID("1-2-3-4-5").isNone(), is(true));
+    }
+
+    @Test
+    public void parseEnumTest() {
+        assertThat(Options.parseEnum(TimeUnit.class, "SECONDS"), is(equalTo(new Some<>(TimeUnit.SECONDS))));
+        assertThat(Options.parseEnum(TimeUnit.class, "unit=DAYS", 5, 4), is(equalTo(new Some<>(TimeUnit.DAYS))));
+        assertThat(Options.parseEnum(TimeUnit.class, "seconds").isNone(), is(true));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import fr.songbird.rapi.ref.PaddedReferenceHandler;
+import fr.songbird.rapi.ref.ReferenceHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class PaddedReferenceHandlerTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void newArrayTest() {
+        final ReferenceHandler<Option<Integer>>[] handlers = PaddedReferenceHandler.newArray(4, None::none);
+        assertThat(handlers.length, is(4));
+        for (final ReferenceHandler<Option<Integer>> handler : handlers) {
+            assertThat(handler instanceof PaddedReferenceHandler, is(true));
+            assertThat(handler.get().isNone(), is(true));
+        }
+    }
+
+    @Test
+    public void perThreadStateTest() throws InterruptedException {
+        final int threads = 8;
+        final ReferenceHandler<Option<Integer>>[] handlers = PaddedReferenceHandler.newArray(threads, None::none);
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            workers[i] = new Thread(() -> {
+                final ReferenceHandler<Option<Integer>> handler = handlers[index];
+                for (int j = 0; j < 10_000; j++) {
+                    handler.get().take(handler);
+                    handler.get().getOrInsert(handler, index);
+                }
+            });
+            workers[i].start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        for (int i = 0; i < threads; i++) {
+            assertThat(handlers[i].get(), is(equalTo(new Some<>(i))));
+        }
+    }
+
+    @Test
+    public void nullInitialValueTest() {
+        expectedException.expect(NullPointerException.class);
+        PaddedReferenceHandler.newArray(1, () -> null);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.ParallelOptions;
+import fr.songbird.rapi.option.Some;
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @since 19/10/26
+ */
+public class ParallelOptionsTest {
+
+    private static final int SIZE = 1_000_000;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private static Option<Integer>[] everyThird(int size) {
+        @SuppressWarnings("unchecked")
+        final Option<Integer>[] options = (Option<Integer>[]) new Option<?>[size];
+        for (int i = 0; i < size; i++) {
+            options[i] = i % 3 == 0 ? new Some<>(i) : None.none();
+        }
+        return options;
+    }
+
+    @Test
+    public void traverseTest() {
+        final Integer[] input = new Integer[SIZE];
+        Arrays.setAll(input, i -> i);
+        final Long[] output = new Long[SIZE];
+        final Option<Long[]> result = ParallelOptions.traverse(input, i -> new Some<>(i * 2L), output, POOL);
+        assertThat(result.isSome(), is(true));
+        assertThat(result.unwrap() == output, is(true));
+        for (int i = 0; i < SIZE; i++) {
+            assertThat(output[i], is(i * 2L));
+        }
+    }
+
+    @Test
+    public void traverseListTest() {
+        final List<String> input = Arrays.asList("1", "2", "3");
+        final Integer[] output = new Integer[3];
+        assertThat(ParallelOptions.traverse(input, s -> new Some<>(Integer.valueOf(s)), output).isSome(), is(true));
+        assertThat(Arrays.asList(output), is(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    public void traverseCancelsOnNoneTest() {
+        final Integer[] input = new Integer[SIZE];
+        Arrays.setAll(input, i -> i);
+        final AtomicInteger calls = new AtomicInteger();
+        final Option<Integer[]> result = ParallelOptions.traverse(input, i -> {
+            calls.incrementAndGet();
+            return i == 10 ? None.<Integer>none() : new Some<>(i);
+        }, new Integer[SIZE], POOL);
+        assertThat(result.isNone(), is(true));
+        // the chunks still running stop at their next element, the others don't start.
+        assertThat(calls.get() < SIZE, is(true));
+    }
+
+    @Test
+    public void countSomeTest() {
+        assertThat(ParallelOptions.countSome(everyThird(SIZE), POOL), is((SIZE + 2) / 3));
+        assertThat(ParallelOptions.countSome(everyThird(10)), is(4));
+        assertThat(ParallelOptions.countSome(everyThird(0)), is(0));
+    }
+
+    @Test
+    public void partitionTest() {
+        final int[] present = new int[SIZE];
+        final int[] absent = new int[SIZE];
+        final int presentCount = ParallelOptions.partition(everyThird(SIZE), present, absent, POOL);
+        assertThat(presentCount, is((SIZE + 2) / 3));
+        for (int i = 0; i < presentCount; i++) {
+            assertThat(present[i], is(i * 3));
+        }
+        for (int i = 0; i < SIZE - presentCount; i++) {
+            assertThat(absent[i], is(i / 2 * 3 + 1 + i % 2));
+        }
+    }
+
+    @Test
+    public void partitionTooShortTest() {
+        expectedException.expect(IllegalArgumentException.class);
+        ParallelOptions.partition(everyThird(SIZE), new int[SIZE], new int[10], POOL);
+    }
+}
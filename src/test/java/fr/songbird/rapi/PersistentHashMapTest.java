@@ -0,0 +1,155 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.collection.PersistentHashMap;
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class PersistentHashMapTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void putGetTest() {
+        final PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+        final PersistentHashMap<String, Integer> v1 = empty.put("a", 1);
+        final PersistentHashMap<String, Integer> v2 = v1.put("b", 2).put("a", 10);
+        assertThat(empty.isEmpty(), is(true));
+        assertThat(v1.get("a"), is(equalTo(new Some<>(1))));
+        assertThat(v1.get("b") == None.<Integer>none(), is(true));
+        assertThat(v2.get("a"), is(equalTo(new Some<>(10))));
+        assertThat(v2.size(), is(2));
+        assertThat(v2.put("b", 2) == v2, is(true));
+    }
+
+    @Test
+    public void removeTest() {
+        final PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+        final PersistentHashMap<String, Integer> removed = map.remove("a");
+        assertThat(removed.size(), is(1));
+        assertThat(removed.containsKey("a"), is(false));
+        assertThat(map.containsKey("a"), is(true));
+        assertThat(removed.remove("missing") == removed, is(true));
+        assertThat(removed.remove("b") == PersistentHashMap.<String, Integer>empty(), is(true));
+    }
+
+    @Test
+    public void collisionTest() {
+        // "Aa" and "BB" have the same hash code.
+        final PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+                .put("Aa", 1).put("BB", 2).put("C", 3);
+        assertThat("Aa".hashCode() == "BB".hashCode(), is(true));
+        assertThat(map.get("Aa"), is(equalTo(new Some<>(1))));
+        assertThat(map.get("BB"), is(equalTo(new Some<>(2))));
+        assertThat(map.size(), is(3));
+        final PersistentHashMap<String, Integer> removed = map.remove("Aa");
+        assertThat(removed.get("Aa").isNone(), is(true));
+        assertThat(removed.get("BB"), is(equalTo(new Some<>(2))));
+        assertThat(removed.size(), is(2));
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        final Random random = new Random(42);
+        final Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            final int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            }
+            else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        assertThat(map.size(), is(expected.size()));
+        for (final Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey()), is(equalTo(new Some<>(entry.getValue()))));
+        }
+        final Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertThat(iterated, is(equalTo(expected)));
+        assertThat(map.hashCode(), is(expected.hashCode()));
+    }
+
+    @Test
+    public void builderTest() {
+        final PersistentHashMap<Integer, String> base = PersistentHashMap.<Integer, String>empty().put(1, "one");
+        final PersistentHashMap.Builder<Integer, String> builder = base.toBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.put(i, Integer.toString(i));
+        }
+        builder.remove(0).remove(-1);
+        final PersistentHashMap<Integer, String> built = builder.build();
+        assertThat(built.size(), is(9_999));
+        assertThat(built.get(1), is(equalTo(new Some<>("1"))));
+        assertThat(built.get(0).isNone(), is(true));
+        // the base version is untouched.
+        assertThat(base.size(), is(1));
+        assertThat(base.get(1), is(equalTo(new Some<>("one"))));
+        // the builder keeps working without changing the built map.
+        builder.put(1, "uno").remove(2);
+        assertThat(built.get(1), is(equalTo(new Some<>("1"))));
+        assertThat(built.get(2), is(equalTo(new Some<>("2"))));
+        assertThat(builder.build().size(), is(9_998));
+    }
+
+    @Test
+    public void equalsTest() {
+        final PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+        final PersistentHashMap<String, Integer> same = PersistentHashMap.<String, Integer>builder().put("b", 2).put("a", 1).build();
+        assertThat(map, is(equalTo(same)));
+        assertThat(map.equals(same.put("a", 3)), is(false));
+    }
+
+    @Test
+    public void missAllocationTest() {
+        AllocationBudget.assumeSupported();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 1_000; i++) {
+            map = map.put(i, i);
+        }
+        final PersistentHashMap<Integer, Integer> config = map;
+        final Integer missing = -1;
+        AllocationBudget.assertWithin("PersistentHashMap.get (miss)", 0, () -> config.get(missing));
+    }
+
+    @Test
+    public void nullValueTest() {
+        expectedException.expect(NullPointerException.class);
+        PersistentHashMap.<String, Integer>empty().put("a", null);
+    }
+}
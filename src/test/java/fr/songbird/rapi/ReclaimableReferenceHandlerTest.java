@@ -0,0 +1,117 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Some;
+import fr.songbird.rapi.ref.ReclaimableReferenceHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Runs under the small heap configured for surefire ({@code -Xmx256m}).
+ * @since 19/10/26
+ */
+public class ReclaimableReferenceHandlerTest {
+
+    private static final int VALUE_SIZE = 16 * 1024 * 1024;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void setAndGetTest() {
+        final ReclaimableReferenceHandler<String> handler = ReclaimableReferenceHandler.soft();
+        assertThat(handler.get().isNone(), is(true));
+        final String value = "Hello there!";
+        handler.set(new Some<>(value));
+        assertThat(handler.get(), is(equalTo(new Some<>(value))));
+        handler.set(new None<>());
+        assertThat(handler.get().isNone(), is(true));
+    }
+
+    @Test
+    public void weakValueIsReclaimedTest() throws InterruptedException {
+        final ReclaimableReferenceHandler<byte[]> handler = ReclaimableReferenceHandler.weak();
+        handler.set(new Some<>(new byte[1024]));
+        for (int i = 0; i < 50 && handler.get().isSome(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(handler.get().isNone(), is(true));
+    }
+
+    @Test
+    public void getOrInsertWithRecomputesTest() throws InterruptedException {
+        final AtomicInteger computations = new AtomicInteger();
+        final ReclaimableReferenceHandler<byte[]> handler = ReclaimableReferenceHandler.weak();
+        byte[] value = handler.get().getOrInsertWith(handler, () -> {
+            computations.incrementAndGet();
+            return new byte[1024];
+        });
+        assertThat(handler.get().getOrInsertWith(handler, () -> new byte[1]) == value, is(true));
+        assertThat(computations.get(), is(1));
+        value = null;
+        for (int i = 0; i < 50 && handler.get().isSome(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        handler.get().getOrInsertWith(handler, () -> {
+            computations.incrementAndGet();
+            return new byte[1024];
+        });
+        assertThat(computations.get(), is(2));
+    }
+
+    @Test
+    public void softValuesKeepHeapBoundedTest() {
+        // 64 * 16 MiB = 1 GiB of values, four times the test heap.
+        final List<ReclaimableReferenceHandler<byte[]>> handlers = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            final ReclaimableReferenceHandler<byte[]> handler = ReclaimableReferenceHandler.soft();
+            handler.get().getOrInsertWith(handler, () -> new byte[VALUE_SIZE]);
+            handlers.add(handler);
+        }
+        int reclaimed = 0;
+        for (final ReclaimableReferenceHandler<byte[]> handler : handlers) {
+            if (handler.get().isNone()) {
+                reclaimed++;
+            }
+        }
+        assertThat(reclaimed > 0, is(true));
+        // every handler still works: reclaimed values are recomputed on access.
+        for (final ReclaimableReferenceHandler<byte[]> handler : handlers) {
+            assertThat(handler.get().getOrInsertWith(handler, () -> new byte[1]).length > 0, is(true));
+        }
+    }
+
+    @Test
+    public void nullStrengthTest() {
+        expectedException.expect(NullPointerException.class);
+        new ReclaimableReferenceHandler<String>(null);
+    }
+}
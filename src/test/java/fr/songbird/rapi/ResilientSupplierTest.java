@@ -0,0 +1,177 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.ResilientSupplier;
+import fr.songbird.rapi.option.Some;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Runs {@link ResilientSupplier} against a simulated latency source.
+ * @since 19/10/26
+ */
+public class ResilientSupplierTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void retriesFailuresTest() {
+        final LatencySource source = new LatencySource(new long[]{0, 0, 0}, 2);
+        final Option<Integer> result = ResilientSupplier.of(source)
+                .withRetries(3, 1, 5, TimeUnit.MILLISECONDS)
+                .get();
+        assertThat(result, is(equalTo(new Some<>(2))));
+        assertThat(source.calls.get(), is(3));
+    }
+
+    @Test
+    public void exhaustedRetriesTest() {
+        final LatencySource source = new LatencySource(new long[]{0}, Integer.MAX_VALUE);
+        assertThat(ResilientSupplier.of(source).withRetries(4, 0, 0, TimeUnit.MILLISECONDS).get() == None.<Integer>none(), is(true));
+        assertThat(source.calls.get(), is(4));
+    }
+
+    @Test
+    public void noneIsNotRetriedTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Supplier<Option<Integer>> absent = () -> {
+            calls.incrementAndGet();
+            return None.none();
+        };
+        assertThat(ResilientSupplier.of(absent).withRetries(3, 0, 0, TimeUnit.MILLISECONDS).get() == None.<Integer>none(), is(true));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void timeoutTest() {
+        final LatencySource source = new LatencySource(new long[]{5_000, 0}, 0);
+        final long start = System.nanoTime();
+        final Option<Integer> result = ResilientSupplier.of(source)
+                .withRetries(2, 0, 0, TimeUnit.MILLISECONDS)
+                .withTimeout(50, TimeUnit.MILLISECONDS)
+                .get();
+        assertThat(result, is(equalTo(new Some<>(1))));
+        assertThat(elapsedMillis(start) < 2_000, is(true));
+    }
+
+    @Test
+    public void hedgingTest() {
+        final LatencySource source = new LatencySource(new long[]{5_000, 0}, 0);
+        final long start = System.nanoTime();
+        final Option<Integer> result = ResilientSupplier.of(source)
+                .withTimeout(10, TimeUnit.SECONDS)
+                .withHedging(20, TimeUnit.MILLISECONDS)
+                .get();
+        assertThat(result, is(equalTo(new Some<>(1))));
+        assertThat(source.calls.get(), is(2));
+        assertThat(elapsedMillis(start) < 2_000, is(true));
+    }
+
+    @Test
+    public void adaptiveHedgingTest() {
+        // fast calls set the p95, then a slow call gets hedged by a fast one.
+        final AtomicBoolean slowNext = new AtomicBoolean();
+        final Supplier<Option<Integer>> source = () -> {
+            try {
+                Thread.sleep(slowNext.getAndSet(false) ? 5_000 : 2);
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new Some<>(1);
+        };
+        final ResilientSupplier<Integer> supplier = ResilientSupplier.of(source)
+                .withTimeout(10, TimeUnit.SECONDS)
+                .withHedging();
+        for (int i = 0; i < 30; i++) {
+            supplier.get();
+        }
+        slowNext.set(true);
+        final long start = System.nanoTime();
+        assertThat(supplier.get(), is(equalTo(new Some<>(1))));
+        assertThat(elapsedMillis(start) < 2_000, is(true));
+    }
+
+    @Test
+    public void interruptedTest() {
+        final LatencySource source = new LatencySource(new long[]{5_000}, 0);
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(ResilientSupplier.of(source).withTimeout(1, TimeUnit.SECONDS).get() == None.<Integer>none(), is(true));
+            assertThat(Thread.currentThread().isInterrupted(), is(true));
+        }
+        finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void invalidAttemptsTest() {
+        expectedException.expect(IllegalArgumentException.class);
+        ResilientSupplier.of(() -> None.none()).withRetries(0, 0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Answers the call number after sleeping the scripted latency of that call (the last one repeats),
+     * throwing for the first {@code failures} calls.
+     */
+    private static final class LatencySource implements Supplier<Option<Integer>> {
+
+        private final long[] latenciesMillis;
+        private final int failures;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private LatencySource(long[] latenciesMillis, int failures) {
+            this.latenciesMillis = latenciesMillis;
+            this.failures = failures;
+        }
+
+        @Override
+        public Option<Integer> get() {
+            final int call = calls.getAndIncrement();
+            try {
+                Thread.sleep(latenciesMillis[Math.min(call, latenciesMillis.length - 1)]);
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (call < failures) {
+                throw new IllegalStateException("call " + call + " failed");
+            }
+            return new Some<>(call);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Option;
+import fr.songbird.rapi.option.Some;
+import fr.songbird.rapi.processor.Specialize;
+import fr.songbird.rapi.processor.SpecializedOptionProcessor;
+import fr.songbird.rapi.ref.ReferenceHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Tests the code generated for {@link Money} by {@code SpecializedOptionProcessor} during the test compilation.
+ * @since 19/10/26
+ */
+public class SpecializedOptionTest {
+
+    @Specialize
+    public static final class Money {
+
+        private final long cents;
+
+        public Money(long cents) {
+            this.cents = cents;
+        }
+
+        public long cents() {
+            return cents;
+        }
+
+        @Override
+        public boolean equals(Object anObject) {
+            return anObject instanceof Money && ((Money) anObject).cents == cents;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(cents);
+        }
+    }
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void generatedClassTest() {
+        assertThat(Modifier.isFinal(SpecializedOptionTest_MoneyOption.class.getModifiers()), is(true));
+        assertThat(Option.class.isAssignableFrom(SpecializedOptionTest_MoneyOption.class), is(true));
+    }
+
+    @Test
+    public void someAndNoneTest() {
+        final SpecializedOptionTest_MoneyOption price = SpecializedOptionTest_MoneyOption.some(new Money(1200));
+        assertThat(price.isSome(), is(true));
+        assertThat(price.unwrap().cents(), is(1200L));
+        assertThat(SpecializedOptionTest_MoneyOption.none().isNone(), is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.none() == SpecializedOptionTest_MoneyOption.ofNullable(null), is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.none().unwrapOr(new Money(1)).cents(), is(1L));
+    }
+
+    @Test
+    public void combinatorsTest() {
+        final SpecializedOptionTest_MoneyOption price = SpecializedOptionTest_MoneyOption.some(new Money(1200));
+        assertThat(price.map(Money::cents), is(equalTo(new Some<>(1200L))));
+        assertThat(price.mapSpecialized(m -> new Money(m.cents() * 2)).unwrap().cents(), is(2400L));
+        assertThat(SpecializedOptionTest_MoneyOption.none().mapSpecialized(m -> new Money(0)).isNone(), is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.none().map(Money::cents) == None.<Long>none(), is(true));
+        assertThat(price.andThen(m -> new Some<>(m.cents() + 1)), is(equalTo(new Some<>(1201L))));
+        assertThat(SpecializedOptionTest_MoneyOption.none().or(price) == price, is(true));
+        assertThat(price.mapOr(0L, Money::cents), is(1200L));
+    }
+
+    @Test
+    public void conversionTest() {
+        final Money money = new Money(5);
+        final SpecializedOptionTest_MoneyOption specialized = SpecializedOptionTest_MoneyOption.some(money);
+        final Option<Money> generic = specialized.toOption();
+        assertThat(generic instanceof Some, is(true));
+        assertThat(generic, is(equalTo(new Some<>(money))));
+        assertThat(specialized.equals(generic), is(true));
+        assertThat(generic.equals(specialized), is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.from(generic), is(equalTo(specialized)));
+        assertThat(SpecializedOptionTest_MoneyOption.from(specialized) == specialized, is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.from(new None<>()) == SpecializedOptionTest_MoneyOption.none(), is(true));
+        assertThat(SpecializedOptionTest_MoneyOption.none().toOption() == None.<Money>none(), is(true));
+    }
+
+    @Test
+    public void hashCodeTest() {
+        assertThat(SpecializedOptionTest_MoneyOption.some(new Money(5)).hashCode(), is(new Some<>(new Money(5)).hashCode()));
+        assertThat(SpecializedOptionTest_MoneyOption.none().hashCode(), is(None.none().hashCode()));
+    }
+
+    @Test
+    public void unnamedPackageTest() throws IOException {
+        assertThat(compile("Money", "@fr.songbird.rapi.processor.Specialize public class Money {}"), is(equalTo("")));
+        assertThat(Files.exists(folder.getRoot().toPath().resolve("MoneyOption.class")), is(true));
+    }
+
+    @Test
+    public void nestedTypesSharingANameTest() throws IOException {
+        final String specializedId = "@fr.songbird.rapi.processor.Specialize public static class Id {}";
+        assertThat(compile("p.A", "package p; public class A { " + specializedId + " }",
+                "p.B", "package p; public class B { " + specializedId + " }"), is(equalTo("")));
+        assertThat(Files.exists(folder.getRoot().toPath().resolve("p/A_IdOption.class")), is(true));
+        assertThat(Files.exists(folder.getRoot().toPath().resolve("p/B_IdOption.class")), is(true));
+    }
+
+    @Test
+    public void getOrInsertAndTakeTest() {
+        final ReferenceHandler<Option<Money>> handler = new ReferenceHandler<>(SpecializedOptionTest_MoneyOption.none());
+        assertThat(handler.get().getOrInsert(handler, new Money(3)).cents(), is(3L));
+        assertThat(handler.get() instanceof SpecializedOptionTest_MoneyOption, is(true));
+        final Option<Money> taken = handler.get().take(handler);
+        assertThat(taken.unwrap().cents(), is(3L));
+        assertThat(handler.get().isNone(), is(true));
+    }
+
+    /**
+     * Compiles sources, given as qualified name and content pairs, into {@code folder} with the processor.
+     * @return The compilation errors, empty if there is none.
+     */
+    private String compile(String... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<JavaFileObject> units = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            final String content = sources[i + 1];
+            units.add(new SimpleJavaFileObject(URI.create("string:///" + sources[i].replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return content;
+                }
+            });
+        }
+        final String library = Paths.get(URI.create(Option.class.getProtectionDomain().getCodeSource().getLocation().toString())).toString();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-classpath", library, "-d", folder.getRoot().getPath(), "-s", folder.getRoot().getPath()), null, units);
+        task.setProcessors(Collections.singletonList(new SpecializedOptionProcessor()));
+        task.call();
+        final StringBuilder errors = new StringBuilder();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.append(diagnostic).append('\n');
+            }
+        }
+        return errors.toString();
+    }
+
+    @Test
+    public void unwrapNoneTest() {
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("called `"
+                + Option.class.getName() + ".unwrap()` on a `None` object");
+        SpecializedOptionTest_MoneyOption.none().unwrap();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    A useful results API to release all of the functional programming power!
+    Copyright (C) 2017  Anthony Defranceschi
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package fr.songbird.rapi;
+
+import fr.songbird.rapi.option.None;
+import fr.songbird.rapi.option.Some;
+import fr.songbird.rapi.validated.Invalid;
+import fr.songbird.rapi.validated.Valid;
+import fr.songbird.rapi.validated.Validated;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * @since 19/10/26
+ */
+public class ValidatedTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private static Validated<String, String> name(String name) {
+        return name.isEmpty() ? Validated.invalid("empty name") : Validated.valid(name);
+    }
+
+    private static Validated<String, Integer> age(int age) {
+        return age < 0 ? Validated.invalid("negative age") : Validated.valid(age);
+    }
+
+    @Test
+    public void isValidTest() {
+        assertThat(Validated.valid(1).isValid(), is(true));
+        assertThat(Validated.invalid("oops").isInvalid(), is(true));
+    }
+
+    @Test
+    public void combineValidTest() {
+        final Validated<String, String> user = name("Leon").combine(age(20), (n, a) -> n + ":" + a);
+        assertThat(user, is(equalTo(new Valid<String, String>("Leon:20"))));
+        assertThat(user.errors(), is(equalTo(Collections.<String>emptyList())));
+    }
+
+    @Test
+    public void combineAccumulatesErrorsTest() {
+        final Validated<String, String> user = name("").combine(age(-1), (n, a) -> n + ":" + a);
+        assertThat(user.errors(), is(equalTo(Arrays.asList("empty name", "negative age"))));
+        assertThat(name("").combine(age(20), (n, a) -> n).errors(), is(equalTo(Collections.singletonList("empty name"))));
+        assertThat(name("Leon").combine(age(-1), (n, a) -> n).errors(), is(equalTo(Collections.singletonList("negative age"))));
+    }
+
+    @Test
+    public void wideRecordTest() {
+        Validated<String, Integer> record = Validated.valid(0);
+        for (int field = 0; field < 100_000; field++) {
+            final Validated<String, Integer> validated = field % 10 == 0 ? Validated.invalid("field " + field) : Validated.valid(field);
+            record = record.combine(validated, Integer::sum);
+        }
+        assertThat(record.errorCount(), is(10_000));
+        assertThat(record.errors().size(), is(10_000));
+        assertThat(record.errors().get(0), is("field 0"));
+        assertThat(record.errors().get(9_999), is("field 99990"));
+    }
+
+    @Test
+    public void andThenFailsFastTest() {
+        assertThat(name("Leon").andThen(n -> age(n.length())), is(equalTo(new Valid<String, Integer>(4))));
+        assertThat(name("").andThen(n -> age(-1)).errors(), is(equalTo(Collections.singletonList("empty name"))));
+    }
+
+    @Test
+    public void mapAndFoldTest() {
+        assertThat(age(20).map(a -> a + 1).unwrap(), is(21));
+        assertThat(age(-1).map(a -> a + 1).fold(errors -> errors.size(), a -> 0), is(1));
+        assertThat(age(20).fold(errors -> -1, a -> a), is(20));
+        assertThat(age(-1).unwrapOr(0), is(0));
+    }
+
+    @Test
+    public void optionConversionTest() {
+        assertThat(age(20).toOption(), is(equalTo(new Some<>(20))));
+        assertThat(age(-1).toOption() == None.<Integer>none(), is(true));
+        assertThat(Validated.fromOption(new Some<>(1), () -> "absent"), is(equalTo(new Valid<String, Integer>(1))));
+        assertThat(Validated.fromOption(new None<Integer>(), () -> "absent"), is(equalTo(new Invalid<String, Integer>("absent"))));
+    }
+
+    @Test
+    public void validCombineAllocationTest() {
+        AllocationBudget.assumeSupported();
+        final Validated<String, String> name = name("Leon");
+        final Validated<String, Integer> age = age(20);
+        final Validated<String, Integer> invalid = age(-1);
+        // a Valid is as large as a Some.
+        AllocationBudget.assertWithin("Valid.combine(Valid)", AllocationBudget.SOME_SIZE, () -> name.combine(age, (n, a) -> n));
+        AllocationBudget.assertWithin("Valid.combine(Invalid)", 0, () -> name.combine(invalid, (n, a) -> n));
+    }
+
+    @Test
+    public void unwrapInvalidTest() {
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("[negative age]");
+        age(-1).unwrap();
+    }
+}